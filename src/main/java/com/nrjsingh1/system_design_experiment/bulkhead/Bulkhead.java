@@ -0,0 +1,89 @@
+package com.nrjsingh1.system_design_experiment.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fair semaphore with a bounded queue wait for one access class, plus its saturation meters
+public class Bulkhead {
+    private final DbAccessClass accessClass;
+    private final int permits;
+    private final long queueTimeoutMs;
+    private final Semaphore semaphore;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public Bulkhead(DbAccessClass accessClass, int permits, long queueTimeoutMs, MeterRegistry meterRegistry) {
+        this.accessClass = accessClass;
+        this.permits = permits;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.semaphore = new Semaphore(permits, true);
+
+        String tag = accessClass.getKey();
+        Gauge.builder("db.bulkhead.active", semaphore, s -> permits - s.availablePermits())
+            .description("Permits currently held")
+            .tag("class", tag)
+            .register(meterRegistry);
+        Gauge.builder("db.bulkhead.max", () -> permits)
+            .description("Permit budget")
+            .tag("class", tag)
+            .register(meterRegistry);
+        Gauge.builder("db.bulkhead.waiting", waiting, AtomicInteger::get)
+            .description("Callers queued for a permit")
+            .tag("class", tag)
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("db.bulkhead.wait")
+            .description("Time spent waiting for a permit")
+            .tag("class", tag)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("db.bulkhead.rejected")
+            .description("Calls rejected after the queue timeout")
+            .tag("class", tag)
+            .register(meterRegistry);
+    }
+
+    public void acquire() {
+        if (semaphore.tryAcquire()) {
+            waitTimer.record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejectedCounter.increment();
+            throw new BulkheadFullException(accessClass, queueTimeoutMs);
+        }
+    }
+
+    public void release() {
+        semaphore.release();
+    }
+
+    public DbAccessClass getAccessClass() {
+        return accessClass;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public long getQueueTimeoutMs() {
+        return queueTimeoutMs;
+    }
+}
@@ -0,0 +1,12 @@
+package com.nrjsingh1.system_design_experiment.bulkhead;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(DbAccessClass accessClass, long queueTimeoutMs) {
+        super("No " + accessClass.getKey() + " database permit available within " + queueTimeoutMs + "ms");
+    }
+}
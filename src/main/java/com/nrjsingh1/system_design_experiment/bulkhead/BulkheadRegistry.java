@@ -0,0 +1,73 @@
+package com.nrjsingh1.system_design_experiment.bulkhead;
+
+import com.nrjsingh1.system_design_experiment.shard.ShardingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Sizes one bulkhead per access class from the Hikari pool size so that, with the default shares,
+// the budgets add up to the pool and a report storm can never hold every connection. With sharding each
+// shard has its own pool and a request holds at most one connection per shard at a time, so the shares
+// are taken of the smallest shard pool.
+// Per-class overrides: bulkhead.<class>.permits, bulkhead.<class>.pool-share, bulkhead.<class>.queue-timeout-ms
+@Component
+public class BulkheadRegistry {
+    private static final Logger log = LoggerFactory.getLogger(BulkheadRegistry.class);
+
+    private final Map<DbAccessClass, Bulkhead> bulkheads = new EnumMap<>(DbAccessClass.class);
+    private final boolean enabled;
+
+    public BulkheadRegistry(Environment environment, ShardingProperties shardingProperties, MeterRegistry meterRegistry) {
+        this.enabled = environment.getProperty("bulkhead.enabled", Boolean.class, true);
+        int poolSize = smallestPoolSize(environment, shardingProperties);
+        for (DbAccessClass accessClass : DbAccessClass.values()) {
+            String prefix = "bulkhead." + accessClass.getKey() + ".";
+            double share = environment.getProperty(prefix + "pool-share", Double.class, accessClass.getDefaultPoolShare());
+            int permits = environment.getProperty(prefix + "permits", Integer.class,
+                    Math.max(1, (int) Math.floor(poolSize * share)));
+            long queueTimeoutMs = environment.getProperty(prefix + "queue-timeout-ms", Long.class,
+                    accessClass.getDefaultQueueTimeoutMs());
+            bulkheads.put(accessClass, new Bulkhead(accessClass, permits, queueTimeoutMs, meterRegistry));
+            log.info("DB bulkhead {}: {} permits of {} connections per pool, queue timeout {}ms",
+                    accessClass.getKey(), permits, poolSize, queueTimeoutMs);
+        }
+    }
+
+    private static int smallestPoolSize(Environment environment, ShardingProperties shardingProperties) {
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        if (!shardingProperties.isEnabled()) {
+            return poolSize;
+        }
+        return shardingProperties.getShards().stream()
+                .mapToInt(shard -> shard.getMaximumPoolSize() != null ? shard.getMaximumPoolSize() : poolSize)
+                .min()
+                .orElse(poolSize);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Bulkhead get(DbAccessClass accessClass) {
+        return bulkheads.get(accessClass);
+    }
+
+    // Programmatic @DbBulkhead for endpoints that only reach the database on some paths (e.g. an index miss)
+    public <T> T call(DbAccessClass accessClass, Supplier<T> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        Bulkhead bulkhead = bulkheads.get(accessClass);
+        bulkhead.acquire();
+        try {
+            return action.get();
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.nrjsingh1.system_design_experiment.bulkhead;
+
+// Classes of database work that get separate connection budgets
+public enum DbAccessClass {
+    POINT_READ("point-read", 0.40, 500),
+    LIST_READ("list-read", 0.25, 1000),
+    REPORT("report", 0.15, 2000),
+    WRITE("write", 0.20, 1000);
+
+    private final String key;
+    private final double defaultPoolShare;
+    private final long defaultQueueTimeoutMs;
+
+    DbAccessClass(String key, double defaultPoolShare, long defaultQueueTimeoutMs) {
+        this.key = key;
+        this.defaultPoolShare = defaultPoolShare;
+        this.defaultQueueTimeoutMs = defaultQueueTimeoutMs;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public double getDefaultPoolShare() {
+        return defaultPoolShare;
+    }
+
+    public long getDefaultQueueTimeoutMs() {
+        return defaultQueueTimeoutMs;
+    }
+}
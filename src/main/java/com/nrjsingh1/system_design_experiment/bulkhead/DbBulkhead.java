@@ -0,0 +1,14 @@
+package com.nrjsingh1.system_design_experiment.bulkhead;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a handler method as doing database work of the given class; the call must hold
+// one of that class's permits for its whole duration
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DbBulkhead {
+    DbAccessClass value();
+}
@@ -0,0 +1,33 @@
+package com.nrjsingh1.system_design_experiment.bulkhead;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+// Holds the permit for the whole controller call. With open-in-view off, connections are only checked
+// out inside the service transactions the call makes, so the permits bound the connections in use; the
+// response is serialized from data already loaded, after the permit is back.
+@Aspect
+@Component
+public class DbBulkheadAspect {
+    private final BulkheadRegistry registry;
+
+    public DbBulkheadAspect(BulkheadRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("@annotation(dbBulkhead)")
+    public Object limit(ProceedingJoinPoint joinPoint, DbBulkhead dbBulkhead) throws Throwable {
+        if (!registry.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        Bulkhead bulkhead = registry.get(dbBulkhead.value());
+        bulkhead.acquire();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
@@ -2,9 +2,11 @@ package com.nrjsingh1.system_design_experiment.config;
 
 import io.micrometer.core.aop.TimedAspect;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import java.util.function.Predicate;
 
 @Configuration
 @EnableAspectJAutoProxy
@@ -12,6 +14,8 @@ public class MetricsConfig {
 
     @Bean
     public TimedAspect timedAspect(MeterRegistry registry) {
-        return new TimedAspect(registry);
+        // Warm-up replays go through the same controller methods; keep them out of the @Timed timers
+        Predicate<ProceedingJoinPoint> skipWarmup = joinPoint -> WarmupTraffic.isActive();
+        return new TimedAspect(registry, skipWarmup);
     }
 }
\ No newline at end of file
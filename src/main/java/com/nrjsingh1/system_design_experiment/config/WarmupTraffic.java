@@ -0,0 +1,22 @@
+package com.nrjsingh1.system_design_experiment.config;
+
+// Marks calls replayed by the warm-up on the current thread, so application meters can leave them out
+// without depending on the warm-up component itself
+public final class WarmupTraffic {
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private WarmupTraffic() {
+    }
+
+    public static boolean isActive() {
+        return Boolean.TRUE.equals(ACTIVE.get());
+    }
+
+    public static void begin() {
+        ACTIVE.set(Boolean.TRUE);
+    }
+
+    public static void end() {
+        ACTIVE.remove();
+    }
+}
@@ -1,7 +1,10 @@
 package com.nrjsingh1.system_design_experiment.controller;
 
+import com.nrjsingh1.system_design_experiment.bulkhead.DbAccessClass;
+import com.nrjsingh1.system_design_experiment.bulkhead.DbBulkhead;
 import com.nrjsingh1.system_design_experiment.model.Customer;
-import com.nrjsingh1.system_design_experiment.repository.CustomerRepository;
+import com.nrjsingh1.system_design_experiment.service.CustomerEmailIndex;
+import com.nrjsingh1.system_design_experiment.service.ShardedCustomerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,7 +14,6 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -24,7 +26,10 @@ import java.util.Optional;
 public class CustomerController {
 
     @Autowired
-    private CustomerRepository customerRepository;
+    private ShardedCustomerService shardedCustomerService;
+
+    @Autowired
+    private CustomerEmailIndex customerEmailIndex;
 
     @Operation(summary = "Get all customers", description = "Returns a paginated list of all customers")
     @ApiResponses(value = {
@@ -33,11 +38,12 @@ public class CustomerController {
                 schema = @Schema(implementation = Page.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
+    @DbBulkhead(DbAccessClass.LIST_READ)
     @GetMapping
     public ResponseEntity<Page<Customer>> getAllCustomers(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Size of page") @RequestParam(defaultValue = "10") int size) {
-        Page<Customer> customers = customerRepository.findAll(PageRequest.of(page, size));
+        Page<Customer> customers = shardedCustomerService.findAll(page, size);
         return ResponseEntity.ok(customers);
     }
 
@@ -48,10 +54,11 @@ public class CustomerController {
                 schema = @Schema(implementation = Customer.class))),
         @ApiResponse(responseCode = "404", description = "Customer not found")
     })
+    @DbBulkhead(DbAccessClass.POINT_READ)
     @GetMapping("/{id}")
     public ResponseEntity<Customer> getCustomerById(
             @Parameter(description = "ID of customer to be searched") @PathVariable Long id) {
-        Optional<Customer> customer = customerRepository.findById(id);
+        Optional<Customer> customer = shardedCustomerService.findById(id);
         return customer.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -62,10 +69,11 @@ public class CustomerController {
                 content = @Content(mediaType = "application/json",
                 schema = @Schema(implementation = Customer.class)))
     })
+    @DbBulkhead(DbAccessClass.LIST_READ)
     @GetMapping("/search/{lastName}")
     public ResponseEntity<List<Customer>> searchCustomersByLastName(
             @Parameter(description = "Last name to search for") @PathVariable String lastName) {
-        List<Customer> customers = customerRepository.findByLastNameOrderByFirstNameAsc(lastName);
+        List<Customer> customers = shardedCustomerService.findByLastName(lastName);
         return ResponseEntity.ok(customers);
     }
 
@@ -76,10 +84,12 @@ public class CustomerController {
                 schema = @Schema(implementation = Customer.class))),
         @ApiResponse(responseCode = "404", description = "Customer not found")
     })
+    @DbBulkhead(DbAccessClass.POINT_READ)
     @GetMapping("/email/{email}")
     public ResponseEntity<Customer> getCustomerByEmail(
             @Parameter(description = "Email of customer to be searched") @PathVariable String email) {
-        Optional<Customer> customer = customerRepository.findByEmail(email);
+        // Unknown emails are answered from the Bloom filter without a database round trip
+        Optional<Customer> customer = customerEmailIndex.findByEmail(email);
         return customer.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
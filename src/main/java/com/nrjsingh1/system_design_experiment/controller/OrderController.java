@@ -1,7 +1,15 @@
 package com.nrjsingh1.system_design_experiment.controller;
 
+import com.nrjsingh1.system_design_experiment.bulkhead.BulkheadRegistry;
+import com.nrjsingh1.system_design_experiment.bulkhead.DbAccessClass;
+import com.nrjsingh1.system_design_experiment.bulkhead.DbBulkhead;
+import com.nrjsingh1.system_design_experiment.dto.OrderDTO;
+import com.nrjsingh1.system_design_experiment.dto.OrderRequest;
 import com.nrjsingh1.system_design_experiment.model.Order;
-import com.nrjsingh1.system_design_experiment.repository.OrderRepository;
+import com.nrjsingh1.system_design_experiment.service.OpenOrderIndex;
+import com.nrjsingh1.system_design_experiment.service.OrderPlacementException;
+import com.nrjsingh1.system_design_experiment.service.ShardedOrderService;
+import io.micrometer.core.annotation.Timed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,11 +19,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -27,7 +35,38 @@ import java.util.Optional;
 public class OrderController {
 
     @Autowired
-    private OrderRepository orderRepository;
+    private ShardedOrderService shardedOrderService;
+
+    @Autowired
+    private OpenOrderIndex openOrderIndex;
+
+    @Autowired
+    private BulkheadRegistry bulkheads;
+
+    @Operation(summary = "Place an order", description = "Reserves stock, snapshots current prices and creates a PENDING order")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Order created",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = OrderDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid order request"),
+        @ApiResponse(responseCode = "404", description = "Customer not found"),
+        @ApiResponse(responseCode = "409", description = "Product missing or insufficient stock")
+    })
+    @DbBulkhead(DbAccessClass.WRITE)
+    @PostMapping
+    @Timed(value = "orders.place", description = "Time taken to place an order", percentiles = {0.5, 0.95, 0.99})
+    public ResponseEntity<OrderDTO> placeOrder(@RequestBody OrderRequest request) {
+        try {
+            OrderDTO order = shardedOrderService.placeOrder(request);
+            return ResponseEntity.created(URI.create("/api/orders/" + order.getId())).body(order);
+        } catch (OrderPlacementException e) {
+            return switch (e.getReason()) {
+                case INVALID_REQUEST -> ResponseEntity.badRequest().build();
+                case CUSTOMER_NOT_FOUND -> ResponseEntity.notFound().build();
+                case PRODUCT_UNAVAILABLE -> ResponseEntity.status(HttpStatus.CONFLICT).build();
+            };
+        }
+    }
 
     @Operation(summary = "Get all orders", description = "Returns a paginated list of all orders, sorted by order date descending")
     @ApiResponses(value = {
@@ -36,12 +75,12 @@ public class OrderController {
                 schema = @Schema(implementation = Page.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
+    @DbBulkhead(DbAccessClass.LIST_READ)
     @GetMapping
     public ResponseEntity<Page<Order>> getAllOrders(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Size of page") @RequestParam(defaultValue = "10") int size) {
-        Page<Order> orders = orderRepository.findAll(
-            PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "orderDate")));
+        Page<Order> orders = shardedOrderService.findAll(page, size);
         return ResponseEntity.ok(orders);
     }
 
@@ -52,10 +91,11 @@ public class OrderController {
                 schema = @Schema(implementation = Order.class))),
         @ApiResponse(responseCode = "404", description = "Order not found")
     })
+    @DbBulkhead(DbAccessClass.POINT_READ)
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(
             @Parameter(description = "ID of order to be searched") @PathVariable Long id) {
-        Optional<Order> order = orderRepository.findById(id);
+        Optional<Order> order = shardedOrderService.findById(id);
         return order.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -66,10 +106,11 @@ public class OrderController {
                 content = @Content(mediaType = "application/json",
                 schema = @Schema(implementation = Order.class)))
     })
+    @DbBulkhead(DbAccessClass.LIST_READ)
     @GetMapping("/customer/{customerId}")
     public ResponseEntity<List<Order>> getOrdersByCustomerId(
             @Parameter(description = "ID of customer to find orders for") @PathVariable Long customerId) {
-        List<Order> orders = orderRepository.findByCustomerId(customerId);
+        List<Order> orders = shardedOrderService.findByCustomerId(customerId);
         return ResponseEntity.ok(orders);
     }
 
@@ -79,10 +120,11 @@ public class OrderController {
                 content = @Content(mediaType = "application/json",
                 schema = @Schema(implementation = Order.class)))
     })
+    @DbBulkhead(DbAccessClass.REPORT)
     @GetMapping("/status/{status}")
     public ResponseEntity<List<Order>> getOrdersByStatus(
             @Parameter(description = "Status to filter by") @PathVariable Order.OrderStatus status) {
-        List<Order> orders = orderRepository.findByStatus(status);
+        List<Order> orders = shardedOrderService.findByStatus(status);
         return ResponseEntity.ok(orders);
     }
 
@@ -97,7 +139,12 @@ public class OrderController {
             @Parameter(description = "Status to filter by") @RequestParam Order.OrderStatus status,
             @Parameter(description = "Orders older than this date/time") 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @RequestParam LocalDateTime before) {
-        List<Order> orders = orderRepository.findStaleOrders(status, before);
+        // Open statuses are picked from the in-memory index and loaded by primary key (a list-read permit);
+        // anything else, or an unseeded index, scans the database under a report permit
+        List<Order> orders = openOrderIndex.findStale(status, before)
+            .map(indexed -> bulkheads.call(DbAccessClass.LIST_READ, () -> shardedOrderService.findIndexed(indexed)))
+            .orElseGet(() -> bulkheads.call(DbAccessClass.REPORT,
+                () -> shardedOrderService.findStale(status, before)));
         return ResponseEntity.ok(orders);
     }
 
@@ -111,7 +158,10 @@ public class OrderController {
     public ResponseEntity<List<Order>> getOrdersNeedingAttention(
             @Parameter(description = "Orders older than this date/time") 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @RequestParam LocalDateTime cutoffDate) {
-        List<Order> orders = orderRepository.findOrdersNeedingAttention(cutoffDate);
+        List<Order> orders = openOrderIndex.findNeedingAttention(cutoffDate)
+            .map(indexed -> bulkheads.call(DbAccessClass.LIST_READ, () -> shardedOrderService.findIndexed(indexed)))
+            .orElseGet(() -> bulkheads.call(DbAccessClass.REPORT,
+                () -> shardedOrderService.findNeedingAttention(cutoffDate)));
         return ResponseEntity.ok(orders);
     }
-}
\ No newline at end of file
+}
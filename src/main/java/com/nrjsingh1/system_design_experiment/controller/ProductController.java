@@ -1,9 +1,16 @@
 package com.nrjsingh1.system_design_experiment.controller;
 
+import com.nrjsingh1.system_design_experiment.bulkhead.BulkheadRegistry;
+import com.nrjsingh1.system_design_experiment.bulkhead.DbAccessClass;
+import com.nrjsingh1.system_design_experiment.bulkhead.DbBulkhead;
+import com.nrjsingh1.system_design_experiment.config.WarmupTraffic;
 import com.nrjsingh1.system_design_experiment.model.Product;
 import com.nrjsingh1.system_design_experiment.dto.ProductDTO;
+import com.nrjsingh1.system_design_experiment.dto.TrendingProductDTO;
 import com.nrjsingh1.system_design_experiment.repository.ProductRepository;
+import com.nrjsingh1.system_design_experiment.service.ProductStockIndex;
 import com.nrjsingh1.system_design_experiment.service.ScalabilityMetricsService;
+import com.nrjsingh1.system_design_experiment.service.TrendingProductService;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -21,6 +28,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import java.util.Optional;
@@ -39,6 +47,15 @@ public class ProductController {
     @Autowired
     private ScalabilityMetricsService scalabilityMetrics;
 
+    @Autowired
+    private TrendingProductService trendingProductService;
+
+    @Autowired
+    private ProductStockIndex productStockIndex;
+
+    @Autowired
+    private BulkheadRegistry bulkheads;
+
     private final Timer productSearchTimer;
 
     @Autowired
@@ -56,6 +73,7 @@ public class ProductController {
                 schema = @Schema(implementation = Page.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
+    @DbBulkhead(DbAccessClass.LIST_READ)
     @GetMapping
     @Timed(value = "products.get.all", description = "Time taken to get all products")
     public ResponseEntity<Page<ProductDTO>> getAllProducts(
@@ -65,7 +83,7 @@ public class ProductController {
         Timer.Sample timer = scalabilityMetrics.startTimer();
         
         try {
-            return productSearchTimer.record(() -> {
+            return timedSearch(() -> {
                 Page<Product> productsPage = productRepository.findAll(PageRequest.of(page, size));
                 List<ProductDTO> productDTOs = productsPage.getContent().stream()
                         .map(ProductDTO::fromEntity)
@@ -73,8 +91,10 @@ public class ProductController {
                 Page<ProductDTO> dtoPage = new PageImpl<>(productDTOs, productsPage.getPageable(), productsPage.getTotalElements());
                 
                 // Record metrics
-                meterRegistry.counter("products.accessed.total").increment();
-                meterRegistry.gauge("products.page.size", size);
+                if (!WarmupTraffic.isActive()) {
+                    meterRegistry.counter("products.accessed.total").increment();
+                    meterRegistry.gauge("products.page.size", size);
+                }
                 
                 return ResponseEntity.ok(dtoPage);
             });
@@ -91,6 +111,7 @@ public class ProductController {
                 schema = @Schema(implementation = ProductDTO.class))),
         @ApiResponse(responseCode = "404", description = "Product not found")
     })
+    @DbBulkhead(DbAccessClass.POINT_READ)
     @GetMapping("/{id}")
     public ResponseEntity<ProductDTO> getProductById(
             @Parameter(description = "ID of product to be searched") @PathVariable Long id) {
@@ -106,12 +127,11 @@ public class ProductController {
                 schema = @Schema(implementation = ProductDTO.class))),
         @ApiResponse(responseCode = "404", description = "No products found in this category")
     })
+    @DbBulkhead(DbAccessClass.LIST_READ)
     @GetMapping("/category/{category}")
     public ResponseEntity<List<ProductDTO>> getProductsByCategory(
             @Parameter(description = "Category to filter by") @PathVariable String category) {
-        List<ProductDTO> productDTOs = productRepository.findByCategory(category).stream()
-                .map(ProductDTO::fromEntity)
-                .collect(Collectors.toList());
+        List<ProductDTO> productDTOs = productRepository.findProductDTOsByCategory(category);
         return ResponseEntity.ok(productDTOs);
     }
 
@@ -124,14 +144,16 @@ public class ProductController {
     @GetMapping("/available")
     @Timed(value = "products.get.available", description = "Time taken to get available products")
     public ResponseEntity<List<ProductDTO>> getAvailableProducts() {
-        return productSearchTimer.record(() -> {
-            List<ProductDTO> productDTOs = productRepository.findAvailableProductsOrderByStockAsc().stream()
-                    .map(ProductDTO::fromEntity)
-                    .collect(Collectors.toList());
+        return timedSearch(() -> {
+            // Only an unseeded index falls back to the database, and only that path takes a bulkhead permit
+            List<ProductDTO> productDTOs = productStockIndex.findAvailable()
+                    .orElseGet(() -> bulkheads.call(DbAccessClass.LIST_READ, productRepository::findAvailableProductDTOsOrderByStockAsc));
             
             // Record metrics
-            meterRegistry.counter("products.available.accessed").increment();
-            meterRegistry.gauge("products.available.count", productDTOs.size());
+            if (!WarmupTraffic.isActive()) {
+                meterRegistry.counter("products.available.accessed").increment();
+                meterRegistry.gauge("products.available.count", productDTOs.size());
+            }
             
             return ResponseEntity.ok(productDTOs);
         });
@@ -141,12 +163,40 @@ public class ProductController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved low stock products",
                 content = @Content(mediaType = "application/json",
-                schema = @Schema(implementation = Product.class)))
+                schema = @Schema(implementation = ProductDTO.class)))
     })
     @GetMapping("/low-stock/{minStock}")
-    public ResponseEntity<List<Product>> getLowStockProducts(
+    public ResponseEntity<List<ProductDTO>> getLowStockProducts(
             @Parameter(description = "Minimum stock threshold") @PathVariable Integer minStock) {
-        List<Product> products = productRepository.findByStockLessThan(minStock);
+        List<ProductDTO> products = productStockIndex.findLowStock(minStock)
+                .orElseGet(() -> bulkheads.call(DbAccessClass.LIST_READ,
+                        () -> productRepository.findProductDTOsByStockLessThan(minStock)));
         return ResponseEntity.ok(products);
     }
+
+    @Operation(summary = "Get trending products", description = "Returns the best-selling products by quantity over a sliding window (5m, 1h or 24h), estimated from in-memory sketches")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved trending products",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = TrendingProductDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Unknown window or invalid limit")
+    })
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingProductDTO>> getTrendingProducts(
+            @Parameter(description = "Sliding window: 5m, 1h or 24h") @RequestParam(defaultValue = "1h") String window,
+            @Parameter(description = "Number of products to return (1-100)") @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        return TrendingProductService.Window.fromLabel(window)
+                .map(w -> ResponseEntity.ok(trendingProductService.topProducts(w, limit).stream()
+                        .map(TrendingProductDTO::fromHeavyHitter)
+                        .collect(Collectors.toList())))
+                .orElse(ResponseEntity.badRequest().build());
+    }
+
+    // The warm-up calls these methods directly; its replays are left out of product.search.time
+    private <T> T timedSearch(Supplier<T> search) {
+        return WarmupTraffic.isActive() ? search.get() : productSearchTimer.record(search);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.nrjsingh1.system_design_experiment.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.nrjsingh1.system_design_experiment.model.MinorUnitsConverter;
+import com.nrjsingh1.system_design_experiment.model.Order;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Order header without items or customer details; also the entry type of OpenOrderIndex
+public class OrderSummaryDTO {
+    private Long id;
+    private Long customerId;
+    private LocalDateTime orderDate;
+    private Order.OrderStatus status;
+    private BigDecimal totalAmount;
+    private LocalDateTime updatedAt;
+
+    public OrderSummaryDTO() {
+    }
+
+    public OrderSummaryDTO(Long id, Long customerId, LocalDateTime orderDate, Order.OrderStatus status,
+                           BigDecimal totalAmount, LocalDateTime updatedAt) {
+        this.id = id;
+        this.customerId = customerId;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.updatedAt = updatedAt;
+    }
+
+    // JPQL projection; Order.totalAmount is held in minor units
+    public OrderSummaryDTO(Long id, Long customerId, LocalDateTime orderDate, Order.OrderStatus status,
+                           long totalAmountCents, LocalDateTime updatedAt) {
+        this(id, customerId, orderDate, status, MinorUnitsConverter.fromMinorUnits(totalAmountCents), updatedAt);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public void setOrderDate(LocalDateTime orderDate) {
+        this.orderDate = orderDate;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    @JsonIgnore
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -10,6 +10,17 @@ public class ProductDTO {
     private BigDecimal price;
     private Integer stock;
 
+    public ProductDTO() {
+    }
+
+    public ProductDTO(Long id, String name, String category, BigDecimal price, Integer stock) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.price = price;
+        this.stock = stock;
+    }
+
     public static ProductDTO fromEntity(Product product) {
         ProductDTO dto = new ProductDTO();
         dto.setId(product.getId());
@@ -0,0 +1,32 @@
+package com.nrjsingh1.system_design_experiment.dto;
+
+import com.nrjsingh1.system_design_experiment.sketch.HeavyHitter;
+
+public class TrendingProductDTO {
+    private Long productId;
+    private Long estimatedQuantity;
+
+    public static TrendingProductDTO fromHeavyHitter(HeavyHitter hitter) {
+        TrendingProductDTO dto = new TrendingProductDTO();
+        dto.setProductId(hitter.getKey());
+        dto.setEstimatedQuantity(hitter.getEstimate());
+        return dto;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getEstimatedQuantity() {
+        return estimatedQuantity;
+    }
+
+    public void setEstimatedQuantity(Long estimatedQuantity) {
+        this.estimatedQuantity = estimatedQuantity;
+    }
+}
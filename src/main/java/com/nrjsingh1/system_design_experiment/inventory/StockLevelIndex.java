@@ -0,0 +1,201 @@
+package com.nrjsingh1.system_design_experiment.inventory;
+
+import com.nrjsingh1.system_design_experiment.dto.ProductDTO;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Products ordered by stock level. Product fields live in parallel primitive arrays indexed by a dense
+// slot (id -> slot through LongIntMap); a TreeMap from stock level to the sorted ids at that level gives
+// threshold and ascending-availability scans in O(log L + k) for L distinct levels and k results.
+// A stock change moves one id between two levels: O(log L + b) for b products sharing the level.
+// Not thread-safe; ProductStockIndex guards it with a read/write lock.
+public class StockLevelIndex {
+    private long[] ids;
+    private int[] stocks;
+    private long[] priceCents;
+    private String[] names;
+    private String[] categories;
+    private int size;
+
+    private final LongIntMap slotById;
+    private final TreeMap<Integer, IdBucket> levels = new TreeMap<>();
+    private final Map<String, String> categoryPool = new HashMap<>();
+
+    public StockLevelIndex(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        ids = new long[capacity];
+        stocks = new int[capacity];
+        priceCents = new long[capacity];
+        names = new String[capacity];
+        categories = new String[capacity];
+        slotById = new LongIntMap(capacity);
+    }
+
+    public void upsert(long id, String name, String category, long price, int stock) {
+        int slot = slotById.get(id, -1);
+        if (slot < 0) {
+            slot = size++;
+            ensureCapacity(size);
+            ids[slot] = id;
+            slotById.put(id, slot);
+        } else {
+            level(stocks[slot]).remove(id, levels, stocks[slot]);
+        }
+        names[slot] = name;
+        categories[slot] = categoryPool.computeIfAbsent(category, c -> c);
+        priceCents[slot] = price;
+        stocks[slot] = stock;
+        levels.computeIfAbsent(stock, s -> new IdBucket()).add(id);
+    }
+
+    // Returns false when the product is not indexed
+    public boolean updateStock(long id, int stock) {
+        int slot = slotById.get(id, -1);
+        if (slot < 0) {
+            return false;
+        }
+        int previous = stocks[slot];
+        if (previous != stock) {
+            level(previous).remove(id, levels, previous);
+            levels.computeIfAbsent(stock, s -> new IdBucket()).add(id);
+            stocks[slot] = stock;
+        }
+        return true;
+    }
+
+    // Applies the stock only when it is below the indexed level; returns false otherwise or when not indexed
+    public boolean lowerStock(long id, int stock) {
+        int slot = slotById.get(id, -1);
+        if (slot < 0 || stock >= stocks[slot]) {
+            return false;
+        }
+        return updateStock(id, stock);
+    }
+
+    public boolean remove(long id) {
+        int slot = slotById.get(id, -1);
+        if (slot < 0) {
+            return false;
+        }
+        level(stocks[slot]).remove(id, levels, stocks[slot]);
+        slotById.remove(id);
+        // Keep slots dense: move the last product into the freed slot
+        int last = --size;
+        if (slot != last) {
+            ids[slot] = ids[last];
+            stocks[slot] = stocks[last];
+            priceCents[slot] = priceCents[last];
+            names[slot] = names[last];
+            categories[slot] = categories[last];
+            slotById.put(ids[slot], slot);
+        }
+        names[last] = null;
+        categories[last] = null;
+        return true;
+    }
+
+    // Stock of the product, or missing when it is not indexed
+    public int stockOf(long id, int missing) {
+        int slot = slotById.get(id, -1);
+        return slot < 0 ? missing : stocks[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Products with stock below the threshold, by stock then id
+    public List<ProductDTO> below(int threshold, int limit) {
+        return collect(levels.headMap(threshold, false), limit);
+    }
+
+    // Products with stock above zero, by stock then id
+    public List<ProductDTO> available(int limit) {
+        return collect(levels.tailMap(0, false), limit);
+    }
+
+    // Snapshot of the indexed product ids, ascending
+    public long[] sortedIds() {
+        long[] sorted = Arrays.copyOf(ids, size);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    public long sizeInBytes() {
+        long arrays = ids.length * (8L + 4 + 8 + 4 + 4);
+        long levelEntries = 0;
+        for (IdBucket bucket : levels.values()) {
+            levelEntries += 48 + bucket.ids.length * 8L;
+        }
+        return arrays + slotById.sizeInBytes() + levelEntries;
+    }
+
+    private List<ProductDTO> collect(NavigableMap<Integer, IdBucket> range, int limit) {
+        List<ProductDTO> result = new ArrayList<>();
+        for (IdBucket bucket : range.values()) {
+            for (int i = 0; i < bucket.size; i++) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                result.add(toDto(slotById.get(bucket.ids[i], -1)));
+            }
+        }
+        return result;
+    }
+
+    private ProductDTO toDto(int slot) {
+        return new ProductDTO(ids[slot], names[slot], categories[slot], BigDecimal.valueOf(priceCents[slot], 2), stocks[slot]);
+    }
+
+    private IdBucket level(int stock) {
+        return levels.get(stock);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > ids.length) {
+            int capacity = Math.max(required, ids.length + (ids.length >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            stocks = Arrays.copyOf(stocks, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            names = Arrays.copyOf(names, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+        }
+    }
+
+    // Sorted ids of the products at one stock level
+    private static final class IdBucket {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        void remove(long id, TreeMap<Integer, IdBucket> levels, int stock) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            if (--size == 0) {
+                levels.remove(stock);
+            }
+        }
+    }
+}
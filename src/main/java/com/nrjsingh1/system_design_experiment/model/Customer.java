@@ -1,11 +1,14 @@
 package com.nrjsingh1.system_design_experiment.model;
 
+import com.nrjsingh1.system_design_experiment.service.CustomerEmailListener;
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "customers")
+@EntityListeners(CustomerEmailListener.class)
 public class Customer {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,6 +28,10 @@ public class Customer {
     @Column(nullable = false)
     private String address;
 
+    // Maintained by the update_customers_updated_at trigger; only read by watermark queries
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL)
     private List<Order> orders = new ArrayList<>();
 
@@ -0,0 +1,31 @@
+package com.nrjsingh1.system_design_experiment.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Money is held as long minor units (cents) in the entities; this maps it onto the DECIMAL(10,2)
+// columns of the default schema. The compact-storage mapping stores the long as BIGINT directly.
+@Converter
+public class MinorUnitsConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minorUnits) {
+        return minorUnits == null ? null : fromMinorUnits(minorUnits);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        return amount == null ? null : toMinorUnits(amount);
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, 2);
+    }
+
+    // Rounds like a DECIMAL(10,2) column would on insert
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
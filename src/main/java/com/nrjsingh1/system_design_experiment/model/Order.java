@@ -1,5 +1,6 @@
 package com.nrjsingh1.system_design_experiment.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -24,18 +25,43 @@ public class Order {
     @Column(nullable = false)
     private OrderStatus status;
 
+    @Convert(converter = MinorUnitsConverter.class)
     @Column(nullable = false)
-    private BigDecimal totalAmount;
+    private long totalAmount;  // In minor units (cents)
+
+    // Maintained by the update_orders_updated_at trigger
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> orderItems = new ArrayList<>();
 
+    // Codes are what the compact-storage schema stores; never renumber them
     public enum OrderStatus {
-        PENDING,
-        PROCESSING,
-        SHIPPED,
-        DELIVERED,
-        CANCELLED
+        PENDING(0),
+        PROCESSING(1),
+        SHIPPED(2),
+        DELIVERED(3),
+        CANCELLED(4);
+
+        private static final OrderStatus[] BY_CODE = values();
+
+        private final short code;
+
+        OrderStatus(int code) {
+            this.code = (short) code;
+        }
+
+        public short getCode() {
+            return code;
+        }
+
+        public static OrderStatus fromCode(short code) {
+            if (code < 0 || code >= BY_CODE.length || BY_CODE[code].code != code) {
+                throw new IllegalArgumentException("Unknown order status code " + code);
+            }
+            return BY_CODE[code];
+        }
     }
 
     // Helper method to add order item
@@ -52,9 +78,11 @@ public class Order {
 
     // Helper method to calculate total amount
     public void calculateTotal() {
-        this.totalAmount = orderItems.stream()
-                .map(item -> item.getPrice().multiply(new BigDecimal(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long total = 0;
+        for (OrderItem item : orderItems) {
+            total = Math.addExact(total, Math.multiplyExact(item.getPriceCents(), (long) item.getQuantity()));
+        }
+        this.totalAmount = total;
     }
 
     // Getters and Setters
@@ -91,11 +119,26 @@ public class Order {
     }
 
     public BigDecimal getTotalAmount() {
-        return totalAmount;
+        return MinorUnitsConverter.fromMinorUnits(totalAmount);
     }
 
     public void setTotalAmount(BigDecimal totalAmount) {
-        this.totalAmount = totalAmount;
+        this.totalAmount = MinorUnitsConverter.toMinorUnits(totalAmount);
+    }
+
+    @JsonIgnore
+    public long getTotalAmountCents() {
+        return totalAmount;
+    }
+
+    public void setTotalAmountCents(long totalAmountCents) {
+        this.totalAmount = totalAmountCents;
+    }
+
+    // Internal change-tracking column, not part of the API
+    @JsonIgnore
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
     }
 
     public List<OrderItem> getOrderItems() {
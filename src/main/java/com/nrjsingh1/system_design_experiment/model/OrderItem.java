@@ -2,6 +2,7 @@ package com.nrjsingh1.system_design_experiment.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.math.BigDecimal;
 
 @Entity
@@ -24,13 +25,14 @@ public class OrderItem {
     @Column(nullable = false)
     private Integer quantity;
 
+    @Convert(converter = MinorUnitsConverter.class)
     @Column(nullable = false)
-    private BigDecimal price;  // Price at the time of order
+    private long price;  // Price at the time of order, in minor units (cents)
 
     // Helper method to set product and copy its current price
     public void setProductWithCurrentPrice(Product product) {
         this.product = product;
-        this.price = product.getPrice();
+        this.price = MinorUnitsConverter.toMinorUnits(product.getPrice());
     }
 
     // Getters and Setters
@@ -67,10 +69,19 @@ public class OrderItem {
     }
 
     public BigDecimal getPrice() {
-        return price;
+        return MinorUnitsConverter.fromMinorUnits(price);
     }
 
     public void setPrice(BigDecimal price) {
-        this.price = price;
+        this.price = MinorUnitsConverter.toMinorUnits(price);
+    }
+
+    @JsonIgnore
+    public long getPriceCents() {
+        return price;
+    }
+
+    public void setPriceCents(long priceCents) {
+        this.price = priceCents;
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.nrjsingh1.system_design_experiment.model;
+
+import com.nrjsingh1.system_design_experiment.model.Order.OrderStatus;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores Order.OrderStatus as its SMALLINT code; applied by META-INF/orm-compact-storage.xml only
+@Converter
+public class OrderStatusCodeConverter implements AttributeConverter<OrderStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(OrderStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public OrderStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : OrderStatus.fromCode(code);
+    }
+}
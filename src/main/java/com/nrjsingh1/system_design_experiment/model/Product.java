@@ -1,8 +1,10 @@
 package com.nrjsingh1.system_design_experiment.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,6 +27,10 @@ public class Product {
     @Column(nullable = false)
     private Integer stock;
 
+    // Maintained by the update_products_updated_at trigger
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
     @JsonManagedReference
     @OneToMany(mappedBy = "product")
     private List<OrderItem> orderItems = new ArrayList<>();
@@ -70,6 +76,12 @@ public class Product {
         this.stock = stock;
     }
 
+    // Internal change-tracking column, not part of the API
+    @JsonIgnore
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
     public List<OrderItem> getOrderItems() {
         return orderItems;
     }
@@ -0,0 +1,54 @@
+package com.nrjsingh1.system_design_experiment.profiling;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+// Bytes allocated per request, tagged like http.server.requests, from the per-thread allocation
+// counter. JFR allocation samples arrive up to a second late and cannot be tied back to the request
+// that was on the thread at the time, so per-endpoint attribution is measured here instead.
+@Component
+public class AllocationMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final boolean enabled;
+
+    public AllocationMetricsFilter(MeterRegistry meterRegistry,
+                                   @Value("${jfr.streaming.enabled:true}") boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.enabled = enabled && threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!enabled) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long before = threadBean.getCurrentThreadAllocatedBytes();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.allocation")
+                .description("Bytes allocated on the request thread while serving the request")
+                .baseUnit("bytes")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(meterRegistry)
+                .record(allocated);
+        }
+    }
+}
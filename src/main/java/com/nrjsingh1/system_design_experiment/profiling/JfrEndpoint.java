@@ -0,0 +1,259 @@
+package com.nrjsingh1.system_design_experiment.profiling;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+// /actuator/jfr - on-demand Flight Recorder sessions plus the streamed hotspot view
+//   GET    /actuator/jfr        recordings and current hotspots (allocation per endpoint/class, contended locks)
+//   POST   /actuator/jfr        start: {"profile": "default"|"profile", "durationSeconds": 300, "name": "step-200"}
+//   POST   /actuator/jfr/{id}   stop
+//   GET    /actuator/jfr/{id}   download as .jfr (a snapshot if still running)
+//   DELETE /actuator/jfr/{id}   close and discard
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrEndpoint {
+    private static final int TOP = 10;
+    // Recordings leave the process; these events carry the environment (DB_PASSWORD), system
+    // properties and the JVM command line
+    private static final List<String> SENSITIVE_EVENTS =
+        List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    private final JfrEventMetrics eventMetrics;
+    private final MeterRegistry meterRegistry;
+    private final int maxRetained;
+    private final long maxSizeBytes;
+    private final Map<Long, Recording> recordings = new ConcurrentSkipListMap<>();
+
+    public JfrEndpoint(JfrEventMetrics eventMetrics,
+                       MeterRegistry meterRegistry,
+                       @Value("${jfr.recordings.max-retained:4}") int maxRetained,
+                       @Value("${jfr.recordings.max-size-mb:256}") long maxSizeMb) {
+        this.eventMetrics = eventMetrics;
+        this.meterRegistry = meterRegistry;
+        this.maxRetained = maxRetained;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("recordings", recordings.values().stream().map(RecordingDescriptor::new).toList());
+        Map<String, Object> hotspots = new LinkedHashMap<>();
+        hotspots.put("allocationByEndpoint", allocationByEndpoint());
+        hotspots.put("allocationByClass", eventMetrics.topAllocatingClasses(TOP));
+        hotspots.put("contendedMonitors", contendedMonitors());
+        status.put("hotspots", hotspots);
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized RecordingDescriptor start(@Nullable String profile, @Nullable Long durationSeconds,
+                                                  @Nullable String name) {
+        String profileName = profile != null ? profile : "profile";
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(profileName);
+        } catch (Exception ex) {
+            throw new InvalidEndpointRequestException("Unknown JFR profile '" + profileName + "'",
+                "Use one of the JDK profiles: default, profile");
+        }
+        evictStopped();
+        if (recordings.size() >= maxRetained) {
+            throw new InvalidEndpointRequestException("Too many recordings",
+                "At most " + maxRetained + " recordings are kept; stop and delete one first");
+        }
+        Map<String, String> settings = new HashMap<>(configuration.getSettings());
+        SENSITIVE_EVENTS.forEach(event -> settings.put(event + "#enabled", "false"));
+        Recording recording = new Recording(settings);
+        recording.setName(name != null ? name : "sde-" + profileName);
+        recording.setToDisk(true);
+        recording.setMaxSize(maxSizeBytes);
+        if (durationSeconds != null && durationSeconds > 0) {
+            recording.setDuration(Duration.ofSeconds(durationSeconds));
+        }
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        return new RecordingDescriptor(recording);
+    }
+
+    @WriteOperation
+    public RecordingDescriptor stop(@Selector long id) {
+        Recording recording = find(id);
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return new RecordingDescriptor(recording);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector long id) throws IOException {
+        Recording recording = find(id);
+        Path file = Files.createTempFile("sde-" + id + "-", ".jfr");
+        recording.dump(file);
+        return new WebEndpointResponse<>(new TemporaryFileSystemResource(file.toFile()), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public RecordingDescriptor discard(@Selector long id) {
+        Recording recording = find(id);
+        recordings.remove(id);
+        RecordingDescriptor descriptor = new RecordingDescriptor(recording);
+        recording.close();
+        return descriptor;
+    }
+
+    private Recording find(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            throw new InvalidEndpointRequestException("No recording " + id, "Unknown recording id");
+        }
+        return recording;
+    }
+
+    // Frees a slot by closing the oldest stopped recording
+    private void evictStopped() {
+        if (recordings.size() < maxRetained) {
+            return;
+        }
+        recordings.values().stream()
+            .filter(r -> r.getState() == RecordingState.STOPPED || r.getState() == RecordingState.CLOSED)
+            .findFirst()
+            .ifPresent(r -> {
+                recordings.remove(r.getId());
+                r.close();
+            });
+    }
+
+    private List<Map<String, Object>> allocationByEndpoint() {
+        List<DistributionSummary> summaries = new ArrayList<>(meterRegistry.find("http.server.requests.allocation").summaries());
+        summaries.sort(Comparator.comparingDouble(DistributionSummary::totalAmount).reversed());
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (DistributionSummary summary : summaries.subList(0, Math.min(TOP, summaries.size()))) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("method", summary.getId().getTag("method"));
+            row.put("uri", summary.getId().getTag("uri"));
+            row.put("requests", summary.count());
+            row.put("totalBytes", (long) summary.totalAmount());
+            row.put("meanBytesPerRequest", (long) summary.mean());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private List<Map<String, Object>> contendedMonitors() {
+        List<Timer> timers = new ArrayList<>(meterRegistry.find("jfr.monitor.contention").timers());
+        timers.sort(Comparator.comparingDouble((Timer t) -> t.totalTime(TimeUnit.MILLISECONDS)).reversed());
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Timer timer : timers.subList(0, Math.min(TOP, timers.size()))) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("monitorClass", timer.getId().getTag("monitor.class"));
+            row.put("events", timer.count());
+            row.put("totalBlockedMs", timer.totalTime(TimeUnit.MILLISECONDS));
+            row.put("maxBlockedMs", timer.max(TimeUnit.MILLISECONDS));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public static final class RecordingDescriptor {
+        private final long id;
+        private final String name;
+        private final String state;
+        private final Instant startTime;
+        private final Instant stopTime;
+        private final long sizeBytes;
+
+        RecordingDescriptor(Recording recording) {
+            this.id = recording.getId();
+            this.name = recording.getName();
+            this.state = recording.getState().name();
+            this.startTime = recording.getStartTime();
+            this.stopTime = recording.getStopTime();
+            this.sizeBytes = recording.getSize();
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public Instant getStartTime() {
+            return startTime;
+        }
+
+        public Instant getStopTime() {
+            return stopTime;
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+    }
+
+    // Deletes the dumped file once the response has been streamed, as the heapdump endpoint does
+    private static final class TemporaryFileSystemResource extends FileSystemResource {
+
+        TemporaryFileSystemResource(File file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            // Forces the streamed (input stream) path so the file is deleted afterwards
+            return false;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.nrjsingh1.system_design_experiment.profiling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Continuous in-process JFR stream feeding Micrometer: GC pauses, sampled allocations, contended monitor
+// enters and slow socket reads (JDBC traffic to Postgres). Sampled allocations are also aggregated by
+// allocated class for the hotspot view of the jfr actuator endpoint.
+@Component
+public class JfrEventMetrics implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(JfrEventMetrics.class);
+
+    // Bounds the per-class allocation table; classes first seen after this land in OTHER
+    private static final int MAX_TRACKED_CLASSES = 2000;
+    private static final String OTHER = "(other)";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String allocationThrottle;
+    private final Duration monitorThreshold;
+    private final Duration socketThreshold;
+
+    private final Map<String, LongAdder> allocationByClass = new ConcurrentHashMap<>();
+    private final Counter allocationSampled;
+    private volatile RecordingStream stream;
+
+    public JfrEventMetrics(MeterRegistry meterRegistry,
+                           @Value("${jfr.streaming.enabled:true}") boolean enabled,
+                           @Value("${jfr.streaming.allocation-throttle:150/s}") String allocationThrottle,
+                           @Value("${jfr.streaming.monitor-threshold-ms:1}") long monitorThresholdMs,
+                           @Value("${jfr.streaming.socket-threshold-ms:1}") long socketThresholdMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.allocationThrottle = allocationThrottle;
+        this.monitorThreshold = Duration.ofMillis(monitorThresholdMs);
+        this.socketThreshold = Duration.ofMillis(socketThresholdMs);
+        this.allocationSampled = Counter.builder("jfr.allocation.sampled")
+            .description("Bytes allocated, as estimated from JFR allocation samples (sample weight)")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        RecordingStream rs = new RecordingStream();
+        rs.setMaxAge(Duration.ofSeconds(30));
+        rs.enable("jdk.GarbageCollection");
+        rs.enable("jdk.ObjectAllocationSample").with("throttle", allocationThrottle);
+        rs.enable("jdk.JavaMonitorEnter").withThreshold(monitorThreshold);
+        rs.enable("jdk.SocketRead").withThreshold(socketThreshold);
+        rs.onEvent("jdk.GarbageCollection", this::onGarbageCollection);
+        rs.onEvent("jdk.ObjectAllocationSample", this::onAllocationSample);
+        rs.onEvent("jdk.JavaMonitorEnter", this::onMonitorEnter);
+        rs.onEvent("jdk.SocketRead", this::onSocketRead);
+        rs.startAsync();
+        stream = rs;
+        log.info("JFR event streaming started (allocation throttle {}, monitor threshold {}, socket threshold {})",
+            allocationThrottle, monitorThreshold, socketThreshold);
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream rs = stream;
+        stream = null;
+        if (rs != null) {
+            rs.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    // Classes with the most sampled allocation since startup, largest first
+    public List<Map<String, Object>> topAllocatingClasses(int limit) {
+        List<Map.Entry<String, LongAdder>> entries = new ArrayList<>(allocationByClass.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed());
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("class", entry.getKey());
+            row.put("bytes", entry.getValue().sum());
+            top.add(row);
+        }
+        return top;
+    }
+
+    private void onGarbageCollection(RecordedEvent event) {
+        Timer.builder("jfr.gc.pause")
+            .description("Stop-the-world time per collection (sum of pauses) from jdk.GarbageCollection")
+            .tag("gc", String.valueOf(event.getString("name")))
+            .tag("cause", String.valueOf(event.getString("cause")))
+            .register(meterRegistry)
+            .record(event.getDuration("sumOfPauses"));
+    }
+
+    private void onAllocationSample(RecordedEvent event) {
+        long weight = event.getLong("weight");
+        allocationSampled.increment(weight);
+        RecordedClass objectClass = event.getClass("objectClass");
+        String name = objectClass != null ? objectClass.getName() : OTHER;
+        LongAdder bytes = allocationByClass.get(name);
+        if (bytes == null) {
+            bytes = allocationByClass.size() < MAX_TRACKED_CLASSES
+                ? allocationByClass.computeIfAbsent(name, key -> new LongAdder())
+                : allocationByClass.computeIfAbsent(OTHER, key -> new LongAdder());
+        }
+        bytes.add(weight);
+    }
+
+    private void onMonitorEnter(RecordedEvent event) {
+        RecordedClass monitorClass = event.getClass("monitorClass");
+        Timer.builder("jfr.monitor.contention")
+            .description("Time threads blocked entering a contended synchronized monitor")
+            .tag("monitor.class", monitorClass != null ? monitorClass.getName() : "unknown")
+            .register(meterRegistry)
+            .record(event.getDuration());
+    }
+
+    private void onSocketRead(RecordedEvent event) {
+        String remote = event.getString("host") + ":" + event.getInt("port");
+        Timer.builder("jfr.socket.read")
+            .description("Blocking socket reads above the threshold; reads from the database port are JDBC round trips")
+            .tag("remote", remote)
+            .register(meterRegistry)
+            .record(event.getDuration());
+        DistributionSummary.builder("jfr.socket.read.bytes")
+            .baseUnit("bytes")
+            .tag("remote", remote)
+            .register(meterRegistry)
+            .record(event.getLong("bytesRead"));
+    }
+}
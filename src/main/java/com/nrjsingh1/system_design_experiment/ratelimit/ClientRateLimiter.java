@@ -0,0 +1,210 @@
+package com.nrjsingh1.system_design_experiment.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Per-client token buckets in a striped map bounded at rate-limit.max-clients. Each stripe is a
+// ConcurrentHashMap with its own size budget, so a burst of new clients only sweeps the stripe it
+// lands in. When a stripe is full of active clients, newcomers share that stripe's overflow bucket
+// rather than growing the map. Idle buckets are full by definition and are dropped on a schedule.
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class ClientRateLimiter {
+    private static final Logger log = LoggerFactory.getLogger(ClientRateLimiter.class);
+
+    // A flood of new clients into a full stripe sweeps it at most this often
+    private static final long INLINE_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long idleNanos;
+    private final int stripeCapacity;
+    private final int mask;
+    private final Map<String, TokenBucket>[] stripes;
+    private final AtomicInteger[] stripeSizes;
+    private final TokenBucket[] overflow;
+    private final AtomicLongArray lastInlineSweep;
+    private final int topClients;
+
+    private final Counter allowed;
+    private final Counter throttled;
+    private final Counter evictions;
+    private final Counter overflowed;
+    private final MultiGauge topThrottled;
+
+    @SuppressWarnings("unchecked")
+    public ClientRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getTokensPerSecond() <= 0 || properties.getBurst() < 1) {
+            throw new IllegalStateException("rate-limit.tokens-per-second and rate-limit.burst must be positive");
+        }
+        this.enabled = properties.isEnabled();
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / properties.getTokensPerSecond()));
+        // A full bucket admits `burst` cost units back to back
+        this.toleranceNanos = properties.getBurst() * intervalNanos;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getIdleEvictionMs());
+        int stripeCount = Integer.highestOneBit(Math.max(1, properties.getStripes() - 1)) << 1;
+        this.mask = stripeCount - 1;
+        this.stripeCapacity = Math.max(1, properties.getMaxClients() / stripeCount);
+        this.stripes = new Map[stripeCount];
+        this.stripeSizes = new AtomicInteger[stripeCount];
+        this.overflow = new TokenBucket[stripeCount];
+        this.lastInlineSweep = new AtomicLongArray(stripeCount);
+        long now = System.nanoTime();
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ConcurrentHashMap<>(Math.min(stripeCapacity, 1024));
+            stripeSizes[i] = new AtomicInteger();
+            overflow[i] = new TokenBucket(now);
+            lastInlineSweep.set(i, now - INLINE_SWEEP_INTERVAL_NANOS);
+        }
+        this.topClients = properties.getTopClients();
+
+        this.allowed = requestCounter(meterRegistry, "allowed");
+        this.throttled = requestCounter(meterRegistry, "throttled");
+        Gauge.builder("ratelimit.clients", this, ClientRateLimiter::trackedClients)
+            .description("Clients with a token bucket")
+            .register(meterRegistry);
+        this.evictions = Counter.builder("ratelimit.evictions")
+            .description("Idle client buckets dropped")
+            .register(meterRegistry);
+        this.overflowed = Counter.builder("ratelimit.overflow")
+            .description("Requests charged to a shared overflow bucket because their stripe was full")
+            .register(meterRegistry);
+        this.topThrottled = MultiGauge.builder("ratelimit.client.throttled")
+            .description("Throttled requests of the most throttled clients since their bucket was created")
+            .register(meterRegistry);
+        log.info("Rate limiting {}: {} tokens/s, burst {}, {} stripes of {} clients",
+            enabled ? "enabled" : "disabled", properties.getTokensPerSecond(), properties.getBurst(), stripeCount, stripeCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 0 when the request may proceed, otherwise the nanos the client should wait before retrying
+    public long tryAcquire(String client, int cost) {
+        return tryAcquire(client, cost, System.nanoTime());
+    }
+
+    long tryAcquire(String client, int cost, long nowNanos) {
+        long wait = bucketFor(client, nowNanos).tryAcquire(cost, nowNanos, intervalNanos, toleranceNanos);
+        (wait == 0 ? allowed : throttled).increment();
+        return wait;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:30000}")
+    public void evictIdle() {
+        long idleSince = System.nanoTime() - idleNanos;
+        for (int i = 0; i < stripes.length; i++) {
+            evict(i, idleSince);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.metrics-interval-ms:10000}")
+    public void publishTopThrottled() {
+        // Counts move while we scan, so rank a snapshot of them
+        PriorityQueue<Map.Entry<String, Long>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map<String, TokenBucket> stripe : stripes) {
+            for (Map.Entry<String, TokenBucket> entry : stripe.entrySet()) {
+                long count = entry.getValue().throttledCount();
+                if (count == 0) {
+                    continue;
+                }
+                top.add(Map.entry(entry.getKey(), count));
+                if (top.size() > topClients) {
+                    top.poll();
+                }
+            }
+        }
+        List<MultiGauge.Row<?>> rows = new ArrayList<>(top.size());
+        for (Map.Entry<String, Long> entry : top) {
+            rows.add(MultiGauge.Row.of(Tags.of("client", label(entry.getKey())), entry.getValue()));
+        }
+        topThrottled.register(rows, true);
+    }
+
+    int trackedClients() {
+        int total = 0;
+        for (AtomicInteger size : stripeSizes) {
+            total += size.get();
+        }
+        return total;
+    }
+
+    private TokenBucket bucketFor(String client, long nowNanos) {
+        int stripe = spread(client.hashCode()) & mask;
+        Map<String, TokenBucket> buckets = stripes[stripe];
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        AtomicInteger size = stripeSizes[stripe];
+        if (size.get() >= stripeCapacity) {
+            // Full buckets carry no state worth keeping, so they can go early
+            long lastSweep = lastInlineSweep.get(stripe);
+            if (nowNanos - lastSweep >= INLINE_SWEEP_INTERVAL_NANOS && lastInlineSweep.compareAndSet(stripe, lastSweep, nowNanos)) {
+                evict(stripe, nowNanos);
+            }
+            if (size.get() >= stripeCapacity) {
+                overflowed.increment();
+                return overflow[stripe];
+            }
+        }
+        TokenBucket created = new TokenBucket(nowNanos);
+        bucket = buckets.putIfAbsent(client, created);
+        if (bucket != null) {
+            return bucket;
+        }
+        size.incrementAndGet();
+        return created;
+    }
+
+    private void evict(int stripe, long idleSinceNanos) {
+        int removed = 0;
+        for (Map.Entry<String, TokenBucket> entry : stripes[stripe].entrySet()) {
+            if (entry.getValue().isIdle(idleSinceNanos) && stripes[stripe].remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            stripeSizes[stripe].addAndGet(-removed);
+            evictions.increment(removed);
+        }
+    }
+
+    // API keys are credentials; only an opaque fingerprint goes into metric tags
+    private static String label(String client) {
+        if (client.startsWith(RateLimitFilter.API_KEY_PREFIX)) {
+            return RateLimitFilter.API_KEY_PREFIX + Integer.toHexString(client.hashCode());
+        }
+        return client;
+    }
+
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ratelimit.requests")
+            .description("Rate-limited requests by outcome")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
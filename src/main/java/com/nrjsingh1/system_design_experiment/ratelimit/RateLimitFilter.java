@@ -0,0 +1,103 @@
+package com.nrjsingh1.system_design_experiment.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Charges every /api/** request to its client's token bucket before a Tomcat thread goes any further
+// (in particular before it can take a DB bulkhead permit or a pooled connection). Runs after the
+// Spring Boot metrics filter, so rejected requests still show up in http.server.requests as 429s.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+    static final String API_KEY_PREFIX = "key:";
+    static final String IP_PREFIX = "ip:";
+
+    private final ClientRateLimiter rateLimiter;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final List<RouteCost> routes = new ArrayList<>();
+
+    public RateLimitFilter(ClientRateLimiter rateLimiter, RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.apiKeyHeader = properties.getApiKeyHeader();
+        this.apiKeys = Set.copyOf(properties.getApiKeys());
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            if (route.getCost() < 1 || route.getCost() > properties.getBurst()) {
+                throw new IllegalStateException("rate-limit route " + route.getPattern() + " cost " + route.getCost()
+                    + " must be between 1 and rate-limit.burst (" + properties.getBurst() + ")");
+            }
+            routes.add(new RouteCost(route.getMethod(), PathPatternParser.defaultInstance.parse(route.getPattern()), route.getCost()));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || !pathWithinApplication(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long waitNanos = rateLimiter.tryAcquire(clientKey(request), costOf(request));
+        if (waitNanos > 0) {
+            response.setHeader("Retry-After", Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded for this client");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Unknown keys fall back to the address, so rotating the header value does not reset the budget
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        if (apiKey != null && apiKeys.contains(apiKey)) {
+            return API_KEY_PREFIX + apiKey;
+        }
+        return IP_PREFIX + request.getRemoteAddr();
+    }
+
+    // First matching route wins; unlisted routes cost 1
+    private int costOf(HttpServletRequest request) {
+        if (routes.isEmpty()) {
+            return 1;
+        }
+        PathContainer path = PathContainer.parsePath(pathWithinApplication(request));
+        for (RouteCost route : routes) {
+            if ((route.method == null || route.method.equalsIgnoreCase(request.getMethod())) && route.pattern.matches(path)) {
+                return route.cost;
+            }
+        }
+        return 1;
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static class RouteCost {
+        private final String method;
+        private final PathPattern pattern;
+        private final int cost;
+
+        RouteCost(String method, PathPattern pattern, int cost) {
+            this.method = method;
+            this.pattern = pattern;
+            this.cost = cost;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.nrjsingh1.system_design_experiment.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// rate-limit.* - per-client token buckets for /api/**. A client is the API key header when it carries
+// one of rate-limit.api-keys, otherwise the remote address (set server.forward-headers-strategy behind
+// a proxy, or every client shares the proxy's bucket). Off unless enabled.
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = false;
+    private String apiKeyHeader = "X-API-Key";
+    // Keys issued to clients; any other header value is ignored so callers cannot mint fresh buckets
+    private Set<String> apiKeys = new HashSet<>();
+    // Sustained rate and bucket size in cost units; a plain request costs 1
+    private double tokensPerSecond = 50;
+    private int burst = 100;
+    private int stripes = 64;
+    private int maxClients = 65536;
+    // Buckets idle (and full) this long are dropped by the eviction sweep
+    private long idleEvictionMs = 300000;
+    // Clients reported individually in ratelimit.client.throttled
+    private int topClients = 10;
+    private List<Route> routes = new ArrayList<>();
+
+    public static class Route {
+        // Any method when omitted
+        private String method;
+        // Spring path pattern, e.g. /api/orders/status/{status}
+        private String pattern;
+        private int cost = 1;
+
+        // Getters and Setters
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+
+        public int getCost() {
+            return cost;
+        }
+
+        public void setCost(int cost) {
+            this.cost = cost;
+        }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getApiKeyHeader() {
+        return apiKeyHeader;
+    }
+
+    public void setApiKeyHeader(String apiKeyHeader) {
+        this.apiKeyHeader = apiKeyHeader;
+    }
+
+    public Set<String> getApiKeys() {
+        return apiKeys;
+    }
+
+    public void setApiKeys(Set<String> apiKeys) {
+        this.apiKeys = apiKeys;
+    }
+
+    public double getTokensPerSecond() {
+        return tokensPerSecond;
+    }
+
+    public void setTokensPerSecond(double tokensPerSecond) {
+        this.tokensPerSecond = tokensPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    public long getIdleEvictionMs() {
+        return idleEvictionMs;
+    }
+
+    public void setIdleEvictionMs(long idleEvictionMs) {
+        this.idleEvictionMs = idleEvictionMs;
+    }
+
+    public int getTopClients() {
+        return topClients;
+    }
+
+    public void setTopClients(int topClients) {
+        this.topClients = topClients;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Route> routes) {
+        this.routes = routes;
+    }
+}
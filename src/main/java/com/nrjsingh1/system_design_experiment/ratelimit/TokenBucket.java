@@ -0,0 +1,40 @@
+package com.nrjsingh1.system_design_experiment.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket held as a single "theoretical arrival time" (the GCRA form): the bucket is full when
+// tat <= now, and taking n tokens pushes tat forward by n emission intervals. Refill is implicit in
+// the clock, so acquiring is one read and one CAS with no lock and no background refill.
+final class TokenBucket {
+    private final AtomicLong theoreticalArrival;
+    private final AtomicLong throttled = new AtomicLong();
+
+    TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    // 0 when the tokens were taken, otherwise the nanos until they would be available
+    long tryAcquire(long cost, long nowNanos, long intervalNanos, long toleranceNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, nowNanos) + cost * intervalNanos;
+            long excess = next - nowNanos - toleranceNanos;
+            if (excess > 0) {
+                throttled.incrementAndGet();
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Full and untouched since idleSinceNanos
+    boolean isIdle(long idleSinceNanos) {
+        return theoreticalArrival.get() - idleSinceNanos <= 0;
+    }
+
+    long throttledCount() {
+        return throttled.get();
+    }
+}
@@ -1,11 +1,16 @@
 package com.nrjsingh1.system_design_experiment.repository;
 
 import com.nrjsingh1.system_design_experiment.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
@@ -18,4 +23,22 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     List<Customer> findByLastNameOrderByFirstNameAsc(String lastName);
     
     boolean existsByEmail(String email);
+    
+    // Streams (id, email) in fetch-size batches; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id AS id, c.email AS email FROM Customer c")
+    Stream<CustomerEmail> streamAllEmails();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id AS id, c.email AS email FROM Customer c WHERE c.updatedAt >= ?1")
+    Stream<CustomerEmail> streamEmailsUpdatedSince(LocalDateTime since);
+    
+    @Query("SELECT MAX(c.updatedAt) FROM Customer c")
+    LocalDateTime findMaxUpdatedAt();
+    
+    interface CustomerEmail {
+        Long getId();
+        
+        String getEmail();
+    }
 }
\ No newline at end of file
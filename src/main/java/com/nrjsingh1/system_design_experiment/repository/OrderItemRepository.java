@@ -4,12 +4,11 @@ import com.nrjsingh1.system_design_experiment.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long>, OrderItemRevenueRepository {
     
     List<OrderItem> findByOrderId(Long orderId);
     
@@ -25,13 +24,11 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
         """)
     List<Object[]> findTopSellingProducts(LocalDateTime startDate, LocalDateTime endDate);
     
-    // Calculate revenue by product
+    // Individual sales (product id, quantity, order date) since a point in time, used to seed in-memory trackers
     @Query("""
-        SELECT oi.product.id, oi.product.name, SUM(oi.quantity * oi.price) as revenue 
+        SELECT oi.product.id, oi.quantity, oi.order.orderDate 
         FROM OrderItem oi 
-        WHERE oi.order.orderDate BETWEEN ?1 AND ?2 
-        GROUP BY oi.product.id, oi.product.name 
-        ORDER BY revenue DESC
+        WHERE oi.order.orderDate >= ?1
         """)
-    List<Object[]> calculateRevenueByProduct(LocalDateTime startDate, LocalDateTime endDate);
+    List<Object[]> findSalesSince(LocalDateTime since);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.nrjsingh1.system_design_experiment.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Revenue queries whose SQL depends on how order_items.price is stored (see orders.compact-storage)
+public interface OrderItemRevenueRepository {
+
+    // Calculate revenue by product: (product id, name, revenue) rows, highest revenue first
+    List<Object[]> calculateRevenueByProduct(LocalDateTime startDate, LocalDateTime endDate);
+}
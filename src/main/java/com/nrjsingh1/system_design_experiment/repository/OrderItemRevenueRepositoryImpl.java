@@ -0,0 +1,43 @@
+package com.nrjsingh1.system_design_experiment.repository;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Aggregates in Postgres for either encoding; only the revenue expression differs. Native SQL because the
+// entity maps price to cents in both modes, so JPQL cannot tell whether the column holds dollars or cents.
+class OrderItemRevenueRepositoryImpl implements OrderItemRevenueRepository {
+
+    // The placeholder takes the revenue expression in dollars, NUMERIC with two decimals
+    private static final String REVENUE_BY_PRODUCT_SQL_TEMPLATE = """
+        SELECT oi.product_id, p.name, %s AS revenue
+        FROM order_items oi
+        JOIN orders o ON o.id = oi.order_id
+        JOIN products p ON p.id = oi.product_id
+        WHERE o.order_date BETWEEN ?1 AND ?2
+        GROUP BY oi.product_id, p.name
+        ORDER BY revenue DESC
+        """;
+
+    private final EntityManager entityManager;
+    private final String revenueByProductSql;
+
+    OrderItemRevenueRepositoryImpl(EntityManager entityManager,
+                                   @Value("${orders.compact-storage:false}") boolean compactStorage) {
+        this.entityManager = entityManager;
+        // Compact storage keeps prices as BIGINT cents
+        this.revenueByProductSql = compactStorage
+            ? REVENUE_BY_PRODUCT_SQL_TEMPLATE.formatted("round(SUM(oi.quantity * oi.price) / 100.0, 2)")
+            : REVENUE_BY_PRODUCT_SQL_TEMPLATE.formatted("SUM(oi.quantity * oi.price)");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> calculateRevenueByProduct(LocalDateTime startDate, LocalDateTime endDate) {
+        return entityManager.createNativeQuery(revenueByProductSql)
+            .setParameter(1, startDate)
+            .setParameter(2, endDate)
+            .getResultList();
+    }
+}
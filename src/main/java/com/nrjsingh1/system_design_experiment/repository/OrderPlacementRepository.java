@@ -0,0 +1,126 @@
+package com.nrjsingh1.system_design_experiment.repository;
+
+import com.nrjsingh1.system_design_experiment.model.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+// Set-based SQL for order placement: a fixed two statements per order regardless of item count.
+// Hibernate cannot batch IDENTITY inserts, so this path bypasses the entity model on purpose.
+@Repository
+public class OrderPlacementRepository {
+
+    // UPDATE ... FROM unnest locks rows in whatever order the join plan visits them, so two orders sharing
+    // products could each hold a row the other waits for. Taking the locks by id first keeps the order global.
+    private static final String LOCK_PRODUCTS_SQL = "SELECT id FROM products WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+
+    // Decrement stock for every line at once and return the price snapshot (in cents) and remaining stock of each row updated
+    private static final String RESERVE_STOCK_SQL = """
+        UPDATE products p
+        SET stock = p.stock - r.quantity
+        FROM unnest(?::bigint[], ?::int[]) AS r(product_id, quantity)
+        WHERE p.id = r.product_id AND p.stock >= r.quantity
+        RETURNING p.id, (p.price * 100)::bigint, p.stock
+        """;
+
+    // Give reserved stock back when the order for it could not be recorded (cross-shard placement)
+    private static final String RELEASE_STOCK_SQL = """
+        UPDATE products p
+        SET stock = p.stock + r.quantity
+        FROM unnest(?::bigint[], ?::int[]) AS r(product_id, quantity)
+        WHERE p.id = r.product_id
+        """;
+
+    // Insert the order header and all of its items in one round trip; no row when the customer does not exist.
+    // A non-null id tag (sharded mode) makes the id (sequence << 10) | tag so it carries the customer's slot.
+    // Placeholders take the status and money encodings of the schema (see orders.compact-storage).
+    private static final String INSERT_ORDER_SQL_TEMPLATE = """
+        WITH new_order AS (
+            INSERT INTO orders (id, customer_id, order_date, status, total_amount)
+            SELECT CASE WHEN ?::bigint IS NULL THEN nextval('orders_id_seq')
+                        ELSE (nextval('orders_id_seq') << 10) | ?::bigint END,
+                   c.id, ?, %s, %s
+            FROM customers c WHERE c.id = ?
+            RETURNING id
+        ), new_items AS (
+            INSERT INTO order_items (order_id, product_id, quantity, price)
+            SELECT new_order.id, i.product_id, i.quantity, %s
+            FROM new_order, unnest(?::bigint[], ?::int[], ?::bigint[]) AS i(product_id, quantity, price_cents)
+            RETURNING 1
+        )
+        SELECT id FROM new_order
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertOrderSql;
+
+    public OrderPlacementRepository(JdbcTemplate jdbcTemplate,
+                                    @Value("${orders.compact-storage:false}") boolean compactStorage) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Compact storage keeps money as BIGINT cents and status as its SMALLINT code
+        this.insertOrderSql = compactStorage
+            ? INSERT_ORDER_SQL_TEMPLATE.formatted(Order.OrderStatus.PENDING.getCode(), "?::bigint", "i.price_cents")
+            : INSERT_ORDER_SQL_TEMPLATE.formatted("'" + Order.OrderStatus.PENDING.name() + "'", "?::bigint / 100.0", "i.price_cents / 100.0");
+    }
+
+    // productIds must be sorted and distinct; fills priceCents and remainingStock by index and returns the number of rows reserved.
+    // Must run inside a transaction, which holds the row locks until it ends.
+    public int reserveStock(Long[] productIds, Integer[] quantities, long[] priceCents, int[] remainingStock) {
+        lockProducts(productIds);
+        int[] reserved = new int[1];
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(RESERVE_STOCK_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", productIds));
+            ps.setArray(2, con.createArrayOf("integer", quantities));
+            return ps;
+        }, rs -> {
+            int index = Arrays.binarySearch(productIds, rs.getLong(1));
+            priceCents[index] = rs.getLong(2);
+            remainingStock[index] = rs.getInt(3);
+            reserved[0]++;
+        });
+        return reserved[0];
+    }
+
+    public void releaseStock(Long[] productIds, Integer[] quantities) {
+        lockProducts(productIds);
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(RELEASE_STOCK_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", productIds));
+            ps.setArray(2, con.createArrayOf("integer", quantities));
+            return ps;
+        });
+    }
+
+    private void lockProducts(Long[] productIds) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_PRODUCTS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", productIds));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    // Returns the new order id, or null when the customer does not exist
+    public Long insertOrder(Long customerId, Long idTag, LocalDateTime orderDate, long totalCents,
+                            Long[] productIds, Integer[] quantities, Long[] priceCents) {
+        List<Long> ids = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(insertOrderSql);
+            ps.setObject(1, idTag, Types.BIGINT);
+            ps.setObject(2, idTag, Types.BIGINT);
+            ps.setTimestamp(3, Timestamp.valueOf(orderDate));
+            ps.setLong(4, totalCents);
+            ps.setLong(5, customerId);
+            ps.setArray(6, con.createArrayOf("bigint", productIds));
+            ps.setArray(7, con.createArrayOf("integer", quantities));
+            ps.setArray(8, con.createArrayOf("bigint", priceCents));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+}
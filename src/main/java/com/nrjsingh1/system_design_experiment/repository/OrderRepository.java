@@ -1,5 +1,6 @@
 package com.nrjsingh1.system_design_experiment.repository;
 
+import com.nrjsingh1.system_design_experiment.dto.OrderSummaryDTO;
 import com.nrjsingh1.system_design_experiment.model.Order;
 import com.nrjsingh1.system_design_experiment.model.Order.OrderStatus;
 import org.springframework.data.domain.Page;
@@ -8,6 +9,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 
 @Repository
@@ -20,12 +23,56 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     List<Order> findByStatus(OrderStatus status);
     
+    // Per-shard input to the k-way merge in ShardedOrderService
+    List<Order> findByStatusOrderByOrderDateDescIdDesc(OrderStatus status);
+    
     Page<Order> findByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
     
     @Query("SELECT o FROM Order o WHERE o.status = ?1 AND o.orderDate < ?2")
     List<Order> findStaleOrders(OrderStatus status, LocalDateTime before);
     
-    // Find orders needing attention (PENDING or PROCESSING status for more than 24 hours)
-    @Query("SELECT o FROM Order o WHERE o.status IN ('PENDING', 'PROCESSING') AND o.orderDate < ?1")
-    List<Order> findOrdersNeedingAttention(LocalDateTime cutoffDate);
+    List<Order> findByStatusInAndOrderDateBefore(Collection<OrderStatus> statuses, LocalDateTime before);
+    
+    // Find orders needing attention (PENDING or PROCESSING status for more than 24 hours).
+    // Statuses are bound as parameters, not string literals, so the status column encoding stays a mapping concern
+    default List<Order> findOrdersNeedingAttention(LocalDateTime cutoffDate) {
+        return findByStatusInAndOrderDateBefore(EnumSet.of(OrderStatus.PENDING, OrderStatus.PROCESSING), cutoffDate);
+    }
+    
+    @Query("""
+        SELECT new com.nrjsingh1.system_design_experiment.dto.OrderSummaryDTO(
+            o.id, o.customer.id, o.orderDate, o.status, o.totalAmount, o.updatedAt) 
+        FROM Order o 
+        WHERE o.status = ?1 AND o.orderDate < ?2
+        """)
+    List<OrderSummaryDTO> findStaleOrderSummaries(OrderStatus status, LocalDateTime before);
+    
+    @Query("""
+        SELECT new com.nrjsingh1.system_design_experiment.dto.OrderSummaryDTO(
+            o.id, o.customer.id, o.orderDate, o.status, o.totalAmount, o.updatedAt) 
+        FROM Order o 
+        WHERE o.status IN ?1 AND o.orderDate < ?2
+        """)
+    List<OrderSummaryDTO> findOrderSummariesByStatusInAndOrderDateBefore(Collection<OrderStatus> statuses, LocalDateTime before);
+    
+    // Used to seed the in-memory open order index
+    @Query("""
+        SELECT new com.nrjsingh1.system_design_experiment.dto.OrderSummaryDTO(
+            o.id, o.customer.id, o.orderDate, o.status, o.totalAmount, o.updatedAt) 
+        FROM Order o 
+        WHERE o.status IN ?1
+        """)
+    List<OrderSummaryDTO> findOrderSummariesByStatusIn(Collection<OrderStatus> statuses);
+    
+    // Orders touched since a watermark (any status), backed by idx_orders_updated_at
+    @Query("""
+        SELECT new com.nrjsingh1.system_design_experiment.dto.OrderSummaryDTO(
+            o.id, o.customer.id, o.orderDate, o.status, o.totalAmount, o.updatedAt) 
+        FROM Order o 
+        WHERE o.updatedAt > ?1
+        """)
+    List<OrderSummaryDTO> findOrderSummariesUpdatedSince(LocalDateTime since);
+    
+    @Query("SELECT MAX(o.updatedAt) FROM Order o")
+    LocalDateTime findMaxUpdatedAt();
 }
\ No newline at end of file
@@ -1,10 +1,17 @@
 package com.nrjsingh1.system_design_experiment.repository;
 
+import com.nrjsingh1.system_design_experiment.dto.ProductDTO;
 import com.nrjsingh1.system_design_experiment.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -17,4 +24,59 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findAvailableProductsOrderByStockAsc();
     
     boolean existsByName(String name);
-}
\ No newline at end of file
+    
+    // DTO projections selecting only the columns covered by the V4 INCLUDE indexes (index-only scans)
+    @Query("""
+        SELECT new com.nrjsingh1.system_design_experiment.dto.ProductDTO(p.id, p.name, p.category, p.price, p.stock) 
+        FROM Product p 
+        WHERE p.category = ?1
+        """)
+    List<ProductDTO> findProductDTOsByCategory(String category);
+    
+    @Query("""
+        SELECT new com.nrjsingh1.system_design_experiment.dto.ProductDTO(p.id, p.name, p.category, p.price, p.stock) 
+        FROM Product p 
+        WHERE p.stock < ?1
+        """)
+    List<ProductDTO> findProductDTOsByStockLessThan(Integer minStock);
+    
+    @Query("""
+        SELECT new com.nrjsingh1.system_design_experiment.dto.ProductDTO(p.id, p.name, p.category, p.price, p.stock) 
+        FROM Product p 
+        WHERE p.stock > 0 
+        ORDER BY p.stock ASC
+        """)
+    List<ProductDTO> findAvailableProductDTOsOrderByStockAsc();
+    
+    // Feeds for ProductStockIndex: full seed, watermark polls and the consistency check
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.nrjsingh1.system_design_experiment.dto.ProductDTO(p.id, p.name, p.category, p.price, p.stock) FROM Product p")
+    Stream<ProductDTO> streamProductDTOs();
+    
+    @Query("""
+        SELECT new com.nrjsingh1.system_design_experiment.dto.ProductDTO(p.id, p.name, p.category, p.price, p.stock) 
+        FROM Product p 
+        WHERE p.updatedAt >= ?1
+        """)
+    List<ProductDTO> findProductDTOsUpdatedSince(LocalDateTime since);
+    
+    @Query("""
+        SELECT new com.nrjsingh1.system_design_experiment.dto.ProductDTO(p.id, p.name, p.category, p.price, p.stock) 
+        FROM Product p 
+        WHERE p.id IN ?1
+        """)
+    List<ProductDTO> findProductDTOsByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT MAX(p.updatedAt) FROM Product p")
+    LocalDateTime findMaxUpdatedAt();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id AS id, p.stock AS stock FROM Product p ORDER BY p.id")
+    Stream<ProductStock> streamStockLevelsOrderById();
+    
+    interface ProductStock {
+        Long getId();
+        
+        Integer getStock();
+    }
+}
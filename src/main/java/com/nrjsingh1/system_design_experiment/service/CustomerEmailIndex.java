@@ -0,0 +1,233 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import com.nrjsingh1.system_design_experiment.model.Customer;
+import com.nrjsingh1.system_design_experiment.repository.CustomerRepository;
+import com.nrjsingh1.system_design_experiment.repository.CustomerRepository.CustomerEmail;
+import com.nrjsingh1.system_design_experiment.shard.ShardExecutor;
+import com.nrjsingh1.system_design_experiment.sketch.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Negative-lookup filter over customers.email. A definite miss answers findByEmail / existsByEmail
+// without touching Postgres; a "maybe" (hit or false positive) falls through to every shard.
+// Built by a streaming scan on startup, fed by CustomerEmailListener on JPA writes, topped up from
+// rows inserted or re-addressed outside the app (updated_at watermark per shard), rebuilt at twice
+// the size when full and from scratch on a schedule as a backstop.
+@Service
+public class CustomerEmailIndex {
+    private static final Logger log = LoggerFactory.getLogger(CustomerEmailIndex.class);
+
+    // Emails recorded while a rebuild scan runs may belong to transactions the scan cannot see yet
+    private static final int RECENT_EMAILS = 4096;
+    private static final LocalDateTime NO_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final CustomerRepository customerRepository;
+    private final ShardedCustomerService shardedCustomerService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ShardExecutor shardExecutor;
+    private final boolean enabled;
+    private final double targetFpp;
+    private final long minCapacity;
+    private final Duration overlap;
+
+    private final Object swapLock = new Object();
+    private final ArrayDeque<String> recentEmails = new ArrayDeque<>();
+    private volatile BloomFilter filter;
+    private volatile long capacity;
+    private volatile boolean ready;
+    // Highest customers.updated_at seen, per shard
+    private LocalDateTime[] watermarks;
+
+    private final Counter definiteMisses;
+    private final Counter falsePositives;
+    private final Counter hits;
+
+    public CustomerEmailIndex(CustomerRepository customerRepository,
+                              ShardedCustomerService shardedCustomerService,
+                              PlatformTransactionManager transactionManager,
+                              ShardExecutor shardExecutor,
+                              MeterRegistry meterRegistry,
+                              @Value("${customers.email-filter.enabled:true}") boolean enabled,
+                              @Value("${customers.email-filter.fpp:0.01}") double targetFpp,
+                              @Value("${customers.email-filter.min-capacity:100000}") long minCapacity,
+                              @Value("${customers.email-filter.overlap-ms:30000}") long overlapMs) {
+        this.customerRepository = customerRepository;
+        this.shardedCustomerService = shardedCustomerService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardExecutor = shardExecutor;
+        this.enabled = enabled;
+        this.targetFpp = targetFpp;
+        this.minCapacity = minCapacity;
+        // updated_at is the writer's transaction start time, so re-read a window behind the watermark
+        this.overlap = Duration.ofMillis(overlapMs);
+
+        this.definiteMisses = lookupCounter(meterRegistry, "definite_miss");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+        this.hits = lookupCounter(meterRegistry, "hit");
+        Gauge.builder("customers.email.filter.memory", this, index -> index.filter == null ? 0 : index.filter.sizeInBytes())
+            .description("Bit array size of the customer email Bloom filter")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("customers.email.filter.fpp.expected", this, index -> index.filter == null ? 0 : index.filter.expectedFpp())
+            .description("False-positive probability implied by the current fill ratio")
+            .register(meterRegistry);
+        Gauge.builder("customers.email.filter.fpp.observed", this, CustomerEmailIndex::observedFpp)
+            .description("Share of filter positives for unknown emails among all unknown-email lookups")
+            .register(meterRegistry);
+        Gauge.builder("customers.email.filter.elements", this, index -> index.filter == null ? 0 : index.filter.approximateElementCount())
+            .description("Estimated number of distinct emails in the filter")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${customers.email-filter.refresh-interval-ms:10000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        if (filter.approximateElementCount() > capacity) {
+            rebuild();
+        } else {
+            topUp();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${customers.email-filter.rebuild-interval-ms:3600000}",
+               initialDelayString = "${customers.email-filter.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        List<LocalDateTime> marks = shardExecutor.fanOut(shard -> customerRepository.findMaxUpdatedAt());
+        long customers = shardExecutor.fanOut(shard -> customerRepository.count()).stream().mapToLong(Long::longValue).sum();
+        long newCapacity = Math.max(minCapacity, customers * 2);
+        BloomFilter next = BloomFilter.create(newCapacity, targetFpp);
+        long start = System.currentTimeMillis();
+        shardExecutor.fanOut(shard -> scan(null, next));
+        synchronized (swapLock) {
+            recentEmails.forEach(next::put);
+            filter = next;
+            capacity = newCapacity;
+        }
+        watermarks = marks.stream().map(mark -> mark != null ? mark : NO_WATERMARK).toArray(LocalDateTime[]::new);
+        ready = true;
+        log.info("Customer email filter built for {} emails ({} bytes, {} hashes) in {}ms",
+            newCapacity, next.sizeInBytes(), next.numHashes(), System.currentTimeMillis() - start);
+    }
+
+    // Picks up customers inserted or re-addressed without going through JPA (SQL scripts, other
+    // services). Old emails stay in the filter; they only cost a false positive.
+    synchronized void topUp() {
+        LocalDateTime[] current = watermarks;
+        BloomFilter target = filter;
+        List<LocalDateTime> marks = shardExecutor.fanOut(shard -> customerRepository.findMaxUpdatedAt());
+        shardExecutor.fanOut(shard -> scan(current[shard].minus(overlap), target));
+        LocalDateTime[] next = current.clone();
+        for (int shard = 0; shard < next.length; shard++) {
+            LocalDateTime mark = marks.get(shard);
+            if (mark != null && mark.isAfter(next[shard])) {
+                next[shard] = mark;
+            }
+        }
+        watermarks = next;
+    }
+
+    public void recordEmail(String email) {
+        if (email == null || !enabled) {
+            return;
+        }
+        synchronized (swapLock) {
+            if (filter != null) {
+                filter.put(email);
+            }
+            recentEmails.addLast(email);
+            if (recentEmails.size() > RECENT_EMAILS) {
+                recentEmails.removeFirst();
+            }
+        }
+    }
+
+    // False only when the email is certainly not a customer; always true until the filter is built
+    public boolean mightExist(String email) {
+        return !ready || filter.mightContain(email);
+    }
+
+    public Optional<Customer> findByEmail(String email) {
+        if (!mightExist(email)) {
+            definiteMisses.increment();
+            return Optional.empty();
+        }
+        Optional<Customer> customer = shardedCustomerService.findByEmail(email);
+        recordOutcome(customer.isPresent());
+        return customer;
+    }
+
+    public boolean existsByEmail(String email) {
+        if (!mightExist(email)) {
+            definiteMisses.increment();
+            return false;
+        }
+        boolean exists = shardedCustomerService.existsByEmail(email);
+        recordOutcome(exists);
+        return exists;
+    }
+
+    private void recordOutcome(boolean found) {
+        if (!ready) {
+            return;
+        }
+        (found ? hits : falsePositives).increment();
+    }
+
+    private double observedFpp() {
+        double negatives = definiteMisses.count() + falsePositives.count();
+        return negatives == 0 ? 0 : falsePositives.count() / negatives;
+    }
+
+    // Full scan when since is null
+    private long scan(LocalDateTime since, BloomFilter target) {
+        Long scanned = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<CustomerEmail> rows = since == null
+                    ? customerRepository.streamAllEmails()
+                    : customerRepository.streamEmailsUpdatedSince(since)) {
+                for (CustomerEmail row : (Iterable<CustomerEmail>) rows::iterator) {
+                    target.put(row.getEmail());
+                    count++;
+                }
+            }
+            return count;
+        });
+        return scanned != null ? scanned : 0;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("customers.email.filter.lookups")
+            .description("Email lookups by filter outcome")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
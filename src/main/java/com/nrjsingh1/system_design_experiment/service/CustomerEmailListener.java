@@ -0,0 +1,23 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import com.nrjsingh1.system_design_experiment.model.Customer;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+// JPA entity listener (instantiated by Spring through Hibernate's bean container) that adds the email of
+// every customer written through JPA to the email filter, so a new customer is never a definite miss.
+// Resolved lazily because the filter depends on the EntityManagerFactory that creates this listener.
+public class CustomerEmailListener {
+    private final ObjectProvider<CustomerEmailIndex> customerEmailIndex;
+
+    public CustomerEmailListener(ObjectProvider<CustomerEmailIndex> customerEmailIndex) {
+        this.customerEmailIndex = customerEmailIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Customer customer) {
+        customerEmailIndex.ifAvailable(index -> index.recordEmail(customer.getEmail()));
+    }
+}
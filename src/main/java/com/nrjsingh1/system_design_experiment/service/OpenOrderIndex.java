@@ -0,0 +1,206 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import com.nrjsingh1.system_design_experiment.dto.OrderSummaryDTO;
+import com.nrjsingh1.system_design_experiment.model.Order.OrderStatus;
+import com.nrjsingh1.system_design_experiment.repository.OrderRepository;
+import com.nrjsingh1.system_design_experiment.shard.ShardExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// In-memory deadline index of open (PENDING / PROCESSING) orders, ordered by order date per status.
+// Seeded with one query at startup, then kept current by polling orders whose updated_at moved past
+// a watermark (plus committed order placements), so stale / needs-attention lookups are an ordered
+// head-set read instead of a table scan. Changes made outside this service show up within one poll.
+@Service
+public class OpenOrderIndex {
+    private static final Logger log = LoggerFactory.getLogger(OpenOrderIndex.class);
+
+    public static final Set<OrderStatus> OPEN_STATUSES = EnumSet.of(OrderStatus.PENDING, OrderStatus.PROCESSING);
+
+    private static final Comparator<OrderSummaryDTO> BY_ORDER_DATE =
+            Comparator.comparing(OrderSummaryDTO::getOrderDate).thenComparing(OrderSummaryDTO::getId);
+    private static final LocalDateTime NO_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final OrderRepository orderRepository;
+    private final ShardExecutor shardExecutor;
+    private final boolean enabled;
+    private final Duration overlap;
+    private final Counter changesApplied;
+
+    private volatile Map<Long, OrderSummaryDTO> byId = new ConcurrentHashMap<>();
+    private volatile Map<OrderStatus, ConcurrentSkipListSet<OrderSummaryDTO>> byStatus = emptyStatusSets();
+    // One watermark per shard (a single entry without sharding)
+    private volatile LocalDateTime[] watermarks = {NO_WATERMARK};
+    private volatile boolean ready;
+    private volatile long lastRefreshMillis = System.currentTimeMillis();
+
+    public OpenOrderIndex(OrderRepository orderRepository,
+                          ShardExecutor shardExecutor,
+                          MeterRegistry meterRegistry,
+                          @Value("${orders.open-index.enabled:true}") boolean enabled,
+                          @Value("${orders.open-index.overlap-ms:30000}") long overlapMs) {
+        this.orderRepository = orderRepository;
+        this.shardExecutor = shardExecutor;
+        this.enabled = enabled;
+        // updated_at is the writer's transaction start time, so re-read a window behind the watermark
+        this.overlap = Duration.ofMillis(overlapMs);
+        Gauge.builder("orders.open.index.size", this, index -> index.byId.size())
+            .description("Open orders held in the in-memory deadline index")
+            .register(meterRegistry);
+        Gauge.builder("orders.open.index.staleness", this, index -> (System.currentTimeMillis() - index.lastRefreshMillis) / 1000.0)
+            .description("Seconds since the index last caught up with the database")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.changesApplied = Counter.builder("orders.open.index.changes")
+            .description("Order changes applied to the index from watermark polls")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (enabled) {
+            reseed();
+        }
+    }
+
+    // Full rebuild; also catches deletions, which the updated_at watermark cannot see
+    @Scheduled(fixedDelayString = "${orders.open-index.reseed-interval-ms:3600000}",
+               initialDelayString = "${orders.open-index.reseed-interval-ms:3600000}")
+    public void reseed() {
+        if (!enabled) {
+            return;
+        }
+        List<LocalDateTime> marks = shardExecutor.fanOut(shard -> orderRepository.findMaxUpdatedAt());
+        List<List<OrderSummaryDTO>> open = shardExecutor.fanOut(shard -> orderRepository.findOrderSummariesByStatusIn(OPEN_STATUSES));
+        Map<Long, OrderSummaryDTO> newById = new ConcurrentHashMap<>();
+        Map<OrderStatus, ConcurrentSkipListSet<OrderSummaryDTO>> newByStatus = emptyStatusSets();
+        for (List<OrderSummaryDTO> shardOrders : open) {
+            for (OrderSummaryDTO order : shardOrders) {
+                newById.put(order.getId(), order);
+                newByStatus.get(order.getStatus()).add(order);
+            }
+        }
+        LocalDateTime[] newWatermarks = new LocalDateTime[marks.size()];
+        for (int shard = 0; shard < newWatermarks.length; shard++) {
+            newWatermarks[shard] = marks.get(shard) != null ? marks.get(shard) : NO_WATERMARK;
+        }
+        synchronized (this) {
+            byId = newById;
+            byStatus = newByStatus;
+            watermarks = newWatermarks;
+            lastRefreshMillis = System.currentTimeMillis();
+            ready = true;
+        }
+        log.info("Open order index seeded with {} orders, watermarks {}", newById.size(), marks);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.open-index.poll-interval-ms:5000}")
+    public void poll() {
+        if (!enabled || !ready) {
+            return;
+        }
+        LocalDateTime[] current = watermarks;
+        List<List<OrderSummaryDTO>> changes = shardExecutor.fanOut(
+            shard -> orderRepository.findOrderSummariesUpdatedSince(current[shard].minus(overlap)));
+        int applied = 0;
+        synchronized (this) {
+            LocalDateTime[] newWatermarks = current.clone();
+            for (int shard = 0; shard < newWatermarks.length; shard++) {
+                for (OrderSummaryDTO change : changes.get(shard)) {
+                    apply(change);
+                    if (change.getUpdatedAt() != null && change.getUpdatedAt().isAfter(newWatermarks[shard])) {
+                        newWatermarks[shard] = change.getUpdatedAt();
+                    }
+                }
+                applied += changes.get(shard).size();
+            }
+            // A reseed that ran meanwhile has already moved the watermarks on
+            if (watermarks == current) {
+                watermarks = newWatermarks;
+            }
+            lastRefreshMillis = System.currentTimeMillis();
+        }
+        changesApplied.increment(applied);
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            apply(new OrderSummaryDTO(event.getOrderId(), event.getCustomerId(), event.getOrderDate(),
+                    OrderStatus.PENDING, event.getTotalAmount(), null));
+        }
+    }
+
+    // Open orders older than the cutoff; empty when the index cannot answer (not seeded or disabled)
+    public Optional<List<OrderSummaryDTO>> findNeedingAttention(LocalDateTime cutoffDate) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        List<OrderSummaryDTO> result = new ArrayList<>();
+        for (OrderStatus status : OPEN_STATUSES) {
+            result.addAll(byStatus.get(status).headSet(probe(cutoffDate)));
+        }
+        result.sort(BY_ORDER_DATE);
+        return Optional.of(result);
+    }
+
+    // Orders in the given status older than the cutoff; empty for statuses the index does not hold
+    public Optional<List<OrderSummaryDTO>> findStale(OrderStatus status, LocalDateTime before) {
+        if (!ready || !OPEN_STATUSES.contains(status)) {
+            return Optional.empty();
+        }
+        return Optional.of(new ArrayList<>(byStatus.get(status).headSet(probe(before))));
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private void apply(OrderSummaryDTO order) {
+        OrderSummaryDTO previous = byId.remove(order.getId());
+        if (previous != null) {
+            byStatus.get(previous.getStatus()).remove(previous);
+        }
+        if (OPEN_STATUSES.contains(order.getStatus())) {
+            byId.put(order.getId(), order);
+            byStatus.get(order.getStatus()).add(order);
+        }
+    }
+
+    // Sorts before every real order with the same date, so headSet(probe) is exactly "orderDate < cutoff"
+    private static OrderSummaryDTO probe(LocalDateTime cutoff) {
+        return new OrderSummaryDTO(Long.MIN_VALUE, null, cutoff, null, null, null);
+    }
+
+    private static Map<OrderStatus, ConcurrentSkipListSet<OrderSummaryDTO>> emptyStatusSets() {
+        Map<OrderStatus, ConcurrentSkipListSet<OrderSummaryDTO>> sets = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OPEN_STATUSES) {
+            sets.put(status, new ConcurrentSkipListSet<>(BY_ORDER_DATE));
+        }
+        return sets;
+    }
+}
@@ -0,0 +1,56 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Published by OrderPlacementService inside the placing transaction; listeners that keep
+// in-memory views should use @TransactionalEventListener so they only see committed orders.
+public class OrderPlacedEvent {
+    private final Long orderId;
+    private final Long customerId;
+    private final LocalDateTime orderDate;
+    private final BigDecimal totalAmount;
+    private final Long[] productIds;
+    private final Integer[] quantities;
+    // Stock left on each product after the reservation, by index of productIds
+    private final int[] remainingStock;
+
+    public OrderPlacedEvent(Long orderId, Long customerId, LocalDateTime orderDate, BigDecimal totalAmount,
+                            Long[] productIds, Integer[] quantities, int[] remainingStock) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.orderDate = orderDate;
+        this.totalAmount = totalAmount;
+        this.productIds = productIds;
+        this.quantities = quantities;
+        this.remainingStock = remainingStock;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public Long[] getProductIds() {
+        return productIds;
+    }
+
+    public Integer[] getQuantities() {
+        return quantities;
+    }
+
+    public int[] getRemainingStock() {
+        return remainingStock;
+    }
+}
@@ -0,0 +1,21 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+public class OrderPlacementException extends RuntimeException {
+
+    public enum Reason {
+        INVALID_REQUEST,
+        CUSTOMER_NOT_FOUND,
+        PRODUCT_UNAVAILABLE
+    }
+
+    private final Reason reason;
+
+    public OrderPlacementException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,153 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import com.nrjsingh1.system_design_experiment.dto.OrderDTO;
+import com.nrjsingh1.system_design_experiment.dto.OrderRequest;
+import com.nrjsingh1.system_design_experiment.model.Order;
+import com.nrjsingh1.system_design_experiment.repository.OrderPlacementRepository;
+import com.nrjsingh1.system_design_experiment.shard.ShardRouter;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+@Service
+public class OrderPlacementService {
+    static final int MAX_ITEMS = 100;
+
+    private final OrderPlacementRepository orderPlacementRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+
+    public OrderPlacementService(OrderPlacementRepository orderPlacementRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 ShardRouter shardRouter) {
+        this.orderPlacementRepository = orderPlacementRepository;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+    }
+
+    // Places an order in two statements: stock reservation with price snapshot, then order + items insert.
+    // Money is summed in cents on primitive longs and converted to BigDecimal once for the total.
+    @Transactional
+    public OrderDTO placeOrder(OrderRequest request) {
+        return record(reserve(request));
+    }
+
+    // First half of a placement whose customer lives on another shard than the products: commits the
+    // stock reservation on its own; the caller must record() it or release() it
+    @Transactional
+    public Reservation reserve(OrderRequest request) {
+        TreeMap<Long, Integer> lines = mergeLines(request);
+        int size = lines.size();
+        Long[] productIds = lines.keySet().toArray(new Long[size]);
+        Integer[] quantities = lines.values().toArray(new Integer[size]);
+
+        long[] priceCents = new long[size];
+        int[] remainingStock = new int[size];
+        int reserved = orderPlacementRepository.reserveStock(productIds, quantities, priceCents, remainingStock);
+        if (reserved != size) {
+            throw new OrderPlacementException(OrderPlacementException.Reason.PRODUCT_UNAVAILABLE,
+                    "One or more products do not exist or have insufficient stock");
+        }
+
+        long totalCents = 0;
+        Long[] boxedPriceCents = new Long[size];
+        try {
+            for (int i = 0; i < size; i++) {
+                totalCents = Math.addExact(totalCents, Math.multiplyExact(priceCents[i], (long) quantities[i]));
+                boxedPriceCents[i] = priceCents[i];
+            }
+        } catch (ArithmeticException e) {
+            // Rolls back the reservation above like any other rejection
+            throw new OrderPlacementException(OrderPlacementException.Reason.INVALID_REQUEST, "Order total is out of range");
+        }
+        return new Reservation(request.getCustomerId(), productIds, quantities, boxedPriceCents, remainingStock, totalCents);
+    }
+
+    // Inserts the order for a reservation; the customer not existing rolls back this transaction only
+    @Transactional
+    public OrderDTO record(Reservation reservation) {
+        Long customerId = reservation.customerId;
+        BigDecimal totalAmount = BigDecimal.valueOf(reservation.totalCents, 2);
+        LocalDateTime orderDate = LocalDateTime.now();
+
+        Long orderId = orderPlacementRepository.insertOrder(customerId, shardRouter.orderIdTag(customerId), orderDate,
+                reservation.totalCents, reservation.productIds, reservation.quantities, reservation.priceCents);
+        if (orderId == null) {
+            throw new OrderPlacementException(OrderPlacementException.Reason.CUSTOMER_NOT_FOUND,
+                    "Customer " + customerId + " not found");
+        }
+        eventPublisher.publishEvent(new OrderPlacedEvent(orderId, customerId, orderDate, totalAmount,
+                reservation.productIds, reservation.quantities, reservation.remainingStock));
+
+        OrderDTO order = new OrderDTO();
+        order.setId(orderId);
+        order.setCustomerId(customerId);
+        order.setOrderDate(orderDate);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setTotalAmount(totalAmount);
+        List<OrderDTO.Item> items = new ArrayList<>(reservation.productIds.length);
+        for (int i = 0; i < reservation.productIds.length; i++) {
+            items.add(new OrderDTO.Item(reservation.productIds[i], reservation.quantities[i],
+                    BigDecimal.valueOf(reservation.priceCents[i], 2)));
+        }
+        order.setItems(items);
+        return order;
+    }
+
+    // Compensates a committed reservation whose order could not be recorded
+    @Transactional
+    public void release(Reservation reservation) {
+        orderPlacementRepository.releaseStock(reservation.productIds, reservation.quantities);
+    }
+
+    // Validates the request and merges duplicate product lines; keys are sorted for the repository lookup
+    private TreeMap<Long, Integer> mergeLines(OrderRequest request) {
+        if (request == null || request.getCustomerId() == null) {
+            throw new OrderPlacementException(OrderPlacementException.Reason.INVALID_REQUEST, "customerId is required");
+        }
+        List<OrderRequest.Item> items = request.getItems();
+        if (items == null || items.isEmpty() || items.size() > MAX_ITEMS) {
+            throw new OrderPlacementException(OrderPlacementException.Reason.INVALID_REQUEST,
+                    "An order must contain between 1 and " + MAX_ITEMS + " items");
+        }
+        TreeMap<Long, Integer> lines = new TreeMap<>();
+        for (OrderRequest.Item item : items) {
+            if (item == null || item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new OrderPlacementException(OrderPlacementException.Reason.INVALID_REQUEST,
+                        "Each item needs a productId and a positive quantity");
+            }
+            try {
+                lines.merge(item.getProductId(), item.getQuantity(), Math::addExact);
+            } catch (ArithmeticException e) {
+                throw new OrderPlacementException(OrderPlacementException.Reason.INVALID_REQUEST,
+                        "Combined quantity of product " + item.getProductId() + " is out of range");
+            }
+        }
+        return lines;
+    }
+
+    // Reserved lines with their price snapshot (cents), by index of productIds
+    public static final class Reservation {
+        private final Long customerId;
+        private final Long[] productIds;
+        private final Integer[] quantities;
+        private final Long[] priceCents;
+        private final int[] remainingStock;
+        private final long totalCents;
+
+        Reservation(Long customerId, Long[] productIds, Integer[] quantities, Long[] priceCents,
+                    int[] remainingStock, long totalCents) {
+            this.customerId = customerId;
+            this.productIds = productIds;
+            this.quantities = quantities;
+            this.priceCents = priceCents;
+            this.remainingStock = remainingStock;
+            this.totalCents = totalCents;
+        }
+    }
+}
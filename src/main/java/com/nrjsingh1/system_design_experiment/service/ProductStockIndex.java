@@ -0,0 +1,287 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import com.nrjsingh1.system_design_experiment.dto.ProductDTO;
+import com.nrjsingh1.system_design_experiment.inventory.StockLevelIndex;
+import com.nrjsingh1.system_design_experiment.repository.ProductRepository;
+import com.nrjsingh1.system_design_experiment.repository.ProductRepository.ProductStock;
+import com.nrjsingh1.system_design_experiment.shard.ShardExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// In-memory stock-level index behind /api/products/low-stock and /available. Seeded by a streaming
+// scan, then kept current from committed order placements (exact remaining stock returned by the
+// reservation, applied only as a decrease) and by polling products whose updated_at moved past a watermark. A periodic
+// consistency check compares every (id, stock) with the database, repairs drift and counts it.
+// In sharded mode the index mirrors shard 0, where all stock is reserved.
+@Service
+public class ProductStockIndex {
+    private static final Logger log = LoggerFactory.getLogger(ProductStockIndex.class);
+
+    private static final LocalDateTime NO_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int MISSING = Integer.MIN_VALUE;
+
+    private final ProductRepository productRepository;
+    private final ShardExecutor shardExecutor;
+    private final boolean enabled;
+    private final Duration overlap;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile StockLevelIndex index = new StockLevelIndex(0);
+    private volatile LocalDateTime watermark = NO_WATERMARK;
+    private volatile boolean ready;
+    private volatile long lastRefreshMillis = System.currentTimeMillis();
+
+    private final Counter changesApplied;
+    private final Counter drift;
+
+    public ProductStockIndex(ProductRepository productRepository,
+                             ShardExecutor shardExecutor,
+                             MeterRegistry meterRegistry,
+                             @Value("${products.stock-index.enabled:true}") boolean enabled,
+                             @Value("${products.stock-index.overlap-ms:30000}") long overlapMs) {
+        this.productRepository = productRepository;
+        this.shardExecutor = shardExecutor;
+        this.enabled = enabled;
+        // updated_at is the writer's transaction start time, so re-read a window behind the watermark
+        this.overlap = Duration.ofMillis(overlapMs);
+        Gauge.builder("products.stock.index.size", this, stockIndex -> stockIndex.index.size())
+            .description("Products held in the in-memory stock-level index")
+            .register(meterRegistry);
+        Gauge.builder("products.stock.index.memory", this, stockIndex -> stockIndex.index.sizeInBytes())
+            .description("Approximate heap used by the stock-level index arrays")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("products.stock.index.staleness", this, stockIndex -> (System.currentTimeMillis() - stockIndex.lastRefreshMillis) / 1000.0)
+            .description("Seconds since the index last caught up with the database")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.changesApplied = Counter.builder("products.stock.index.changes")
+            .description("Product changes applied to the index from watermark polls and order placements")
+            .register(meterRegistry);
+        this.drift = Counter.builder("products.stock.index.drift")
+            .description("Products the consistency check found out of line with the database and repaired")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (enabled) {
+            reseed();
+        }
+    }
+
+    // Full rebuild; the watermark is read first so changes committed during the scan are polled again
+    @Scheduled(fixedDelayString = "${products.stock-index.reseed-interval-ms:3600000}",
+               initialDelayString = "${products.stock-index.reseed-interval-ms:3600000}")
+    public void reseed() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        LocalDateTime mark = onProductShard(productRepository::findMaxUpdatedAt);
+        StockLevelIndex next = onProductShard(() -> {
+            StockLevelIndex built = new StockLevelIndex((int) productRepository.count());
+            try (Stream<ProductDTO> rows = productRepository.streamProductDTOs()) {
+                rows.forEach(product -> upsert(built, product));
+            }
+            return built;
+        });
+        lock.writeLock().lock();
+        try {
+            index = next;
+            watermark = mark != null ? mark : NO_WATERMARK;
+            lastRefreshMillis = System.currentTimeMillis();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product stock index seeded with {} products ({} bytes) in {}ms",
+            next.size(), next.sizeInBytes(), System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(fixedDelayString = "${products.stock-index.poll-interval-ms:5000}")
+    public void poll() {
+        if (!enabled || !ready) {
+            return;
+        }
+        LocalDateTime current = watermark;
+        LocalDateTime mark = onProductShard(productRepository::findMaxUpdatedAt);
+        List<ProductDTO> changes = onProductShard(() -> productRepository.findProductDTOsUpdatedSince(current.minus(overlap)));
+        lock.writeLock().lock();
+        try {
+            StockLevelIndex target = index;
+            changes.forEach(product -> upsert(target, product));
+            // A reseed that ran meanwhile has already moved the watermark on
+            if (watermark == current && mark != null) {
+                watermark = mark;
+            }
+            lastRefreshMillis = System.currentTimeMillis();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        changesApplied.increment(changes.size());
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (!enabled || !ready) {
+            return;
+        }
+        Long[] productIds = event.getProductIds();
+        int[] remainingStock = event.getRemainingStock();
+        int applied = 0;
+        lock.writeLock().lock();
+        try {
+            // Reservations only lower stock, so a higher remaining value comes from an older placement whose
+            // event arrived late (or predates a poll). Increases (restocks, released reservations) come from polling.
+            for (int i = 0; i < productIds.length; i++) {
+                if (index.lowerStock(productIds[i], remainingStock[i])) {
+                    applied++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        changesApplied.increment(applied);
+    }
+
+    // Merges the index ids with an id-ordered scan of the table; products that differ are re-read
+    // and only counted (and repaired) if they still differ, so in-flight updates are not reported
+    @Scheduled(fixedDelayString = "${products.stock-index.consistency-check-interval-ms:600000}",
+               initialDelayString = "${products.stock-index.consistency-check-interval-ms:600000}")
+    public int checkConsistency() {
+        if (!enabled || !ready) {
+            return 0;
+        }
+        long[] indexed = snapshotIds();
+        List<Long> suspects = onProductShard(() -> {
+            List<Long> mismatched = new ArrayList<>();
+            int i = 0;
+            try (Stream<ProductStock> rows = productRepository.streamStockLevelsOrderById()) {
+                for (ProductStock row : (Iterable<ProductStock>) rows::iterator) {
+                    long id = row.getId();
+                    for (; i < indexed.length && indexed[i] < id; i++) {
+                        mismatched.add(indexed[i]);
+                    }
+                    if (i < indexed.length && indexed[i] == id) {
+                        i++;
+                    }
+                    if (stockOf(id) != row.getStock()) {
+                        mismatched.add(id);
+                    }
+                }
+            }
+            for (; i < indexed.length; i++) {
+                mismatched.add(indexed[i]);
+            }
+            return mismatched;
+        });
+        if (suspects.isEmpty()) {
+            return 0;
+        }
+        List<ProductDTO> current = onProductShard(() -> productRepository.findProductDTOsByIdIn(suspects));
+        int repaired = 0;
+        lock.writeLock().lock();
+        try {
+            StockLevelIndex target = index;
+            Set<Long> deleted = new HashSet<>(suspects);
+            for (ProductDTO product : current) {
+                deleted.remove(product.getId());
+                if (target.stockOf(product.getId(), MISSING) != product.getStock()) {
+                    upsert(target, product);
+                    repaired++;
+                }
+            }
+            for (Long id : deleted) {
+                if (target.remove(id)) {
+                    repaired++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (repaired > 0) {
+            drift.increment(repaired);
+            log.warn("Product stock index repaired {} products out of line with the database", repaired);
+        }
+        return repaired;
+    }
+
+    // Products with stock below the threshold, lowest stock first; empty when the index cannot answer
+    public Optional<List<ProductDTO>> findLowStock(int threshold) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(index.below(threshold, Integer.MAX_VALUE));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Products in stock, lowest stock first; empty when the index cannot answer
+    public Optional<List<ProductDTO>> findAvailable() {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(index.available(Integer.MAX_VALUE));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private int stockOf(long id) {
+        lock.readLock().lock();
+        try {
+            return index.stockOf(id, MISSING);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] snapshotIds() {
+        lock.readLock().lock();
+        try {
+            return index.sortedIds();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Products live on shard 0; readOnShard also opens the transaction streaming queries need
+    private <T> T onProductShard(Supplier<T> query) {
+        return shardExecutor.readOnShard(0, query);
+    }
+
+    private static void upsert(StockLevelIndex target, ProductDTO product) {
+        target.upsert(product.getId(), product.getName(), product.getCategory(),
+            product.getPrice().movePointRight(2).longValue(), product.getStock());
+    }
+}
@@ -1,5 +1,6 @@
 package com.nrjsingh1.system_design_experiment.service;
 
+import com.nrjsingh1.system_design_experiment.config.WarmupTraffic;
 import io.micrometer.core.instrument.*;
 import org.springframework.stereotype.Service;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -35,21 +36,30 @@ public class ScalabilityMetricsService {
             .register(meterRegistry);
     }
 
+    // Calls replayed by the warm-up are not counted as requests
     public void recordRequestStart() {
+        if (WarmupTraffic.isActive()) {
+            return;
+        }
         activeRequests.incrementAndGet();
         requestCounter.increment();
     }
 
     public void recordRequestEnd() {
+        if (WarmupTraffic.isActive()) {
+            return;
+        }
         activeRequests.decrementAndGet();
     }
 
     public Timer.Sample startTimer() {
-        return Timer.start(meterRegistry);
+        return WarmupTraffic.isActive() ? null : Timer.start(meterRegistry);
     }
 
     public void stopTimer(Timer.Sample sample) {
-        sample.stop(responseTimeDistribution);
+        if (sample != null) {
+            sample.stop(responseTimeDistribution);
+        }
     }
 
     private double getMemoryUsage() {
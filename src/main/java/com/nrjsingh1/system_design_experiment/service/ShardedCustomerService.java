@@ -0,0 +1,100 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import com.nrjsingh1.system_design_experiment.model.Customer;
+import com.nrjsingh1.system_design_experiment.repository.CustomerRepository;
+import com.nrjsingh1.system_design_experiment.shard.ShardExecutor;
+import com.nrjsingh1.system_design_experiment.shard.ShardRouter;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+// Customer reads across customer-keyed shards. An id goes to the shard that owns its slot; email and
+// last-name lookups carry no slot, so they ask every shard in parallel. A customer the rebalancer is
+// moving can briefly exist on two shards, so only the copy on the shard that owns its slot counts.
+// With sharding disabled every method is the plain repository call, in a read-only transaction.
+@Service
+public class ShardedCustomerService {
+    private static final Comparator<Customer> BY_ID = Comparator.comparing(Customer::getId);
+    private static final Comparator<Customer> BY_FIRST_NAME = Comparator.comparing(Customer::getFirstName);
+
+    private final CustomerRepository customerRepository;
+    private final ShardRouter shardRouter;
+    private final ShardExecutor shardExecutor;
+
+    public ShardedCustomerService(CustomerRepository customerRepository, ShardRouter shardRouter,
+                                  ShardExecutor shardExecutor) {
+        this.customerRepository = customerRepository;
+        this.shardRouter = shardRouter;
+        this.shardExecutor = shardExecutor;
+    }
+
+    public Optional<Customer> findById(Long id) {
+        return shardExecutor.readOnShard(shardRouter.shardForCustomer(id),
+                () -> customerRepository.findById(id).map(ShardedCustomerService::initialized));
+    }
+
+    public Optional<Customer> findByEmail(String email) {
+        return shardExecutor.fanOut(shard -> customerRepository.findByEmail(email)
+                        .filter(customer -> ownedBy(customer, shard))
+                        .map(ShardedCustomerService::initialized))
+                .stream()
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    public boolean existsByEmail(String email) {
+        if (!shardRouter.isSharded()) {
+            return shardExecutor.readOnShard(0, () -> customerRepository.existsByEmail(email));
+        }
+        return findByEmail(email).isPresent();
+    }
+
+    public List<Customer> findByLastName(String lastName) {
+        List<List<Customer>> perShard = shardExecutor.fanOut(shard ->
+                customerRepository.findByLastNameOrderByFirstNameAsc(lastName).stream()
+                        .filter(customer -> ownedBy(customer, shard))
+                        .map(ShardedCustomerService::initialized)
+                        .toList());
+        return ShardExecutor.mergeSorted(perShard, BY_FIRST_NAME, 0, Integer.MAX_VALUE);
+    }
+
+    // Sharded pages are ordered by id; page p of size n reads the first (p + 1) * n rows of every shard
+    public Page<Customer> findAll(int page, int size) {
+        if (!shardRouter.isSharded()) {
+            return shardExecutor.readOnShard(0, () -> {
+                Page<Customer> customers = customerRepository.findAll(PageRequest.of(page, size));
+                customers.forEach(ShardedCustomerService::initialized);
+                return customers;
+            });
+        }
+        int perShardLimit = Math.toIntExact((long) (page + 1) * size);
+        List<List<Customer>> perShard = shardExecutor.fanOut(shard ->
+                customerRepository.findAll(PageRequest.of(0, perShardLimit, Sort.by("id"))).stream()
+                        .filter(customer -> ownedBy(customer, shard))
+                        .map(ShardedCustomerService::initialized)
+                        .toList());
+        long total = shardExecutor.fanOut(shard -> customerRepository.count()).stream()
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sum();
+        List<Customer> merged = ShardExecutor.mergeSorted(perShard, BY_ID, (long) page * size, size);
+        return new PageImpl<>(merged, PageRequest.of(page, size, Sort.by("id")), total);
+    }
+
+    private boolean ownedBy(Customer customer, int shard) {
+        return shardRouter.shardForCustomer(customer.getId()) == shard;
+    }
+
+    // Reads run in their own transaction, so load the orders the JSON response includes before it ends
+    private static Customer initialized(Customer customer) {
+        Hibernate.initialize(customer.getOrders());
+        return customer;
+    }
+}
@@ -0,0 +1,174 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import com.nrjsingh1.system_design_experiment.dto.OrderDTO;
+import com.nrjsingh1.system_design_experiment.dto.OrderRequest;
+import com.nrjsingh1.system_design_experiment.dto.OrderSummaryDTO;
+import com.nrjsingh1.system_design_experiment.model.Order;
+import com.nrjsingh1.system_design_experiment.model.Order.OrderStatus;
+import com.nrjsingh1.system_design_experiment.repository.OrderRepository;
+import com.nrjsingh1.system_design_experiment.service.OrderPlacementService.Reservation;
+import com.nrjsingh1.system_design_experiment.shard.ShardExecutor;
+import com.nrjsingh1.system_design_experiment.shard.ShardRouter;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+// Order reads and placement across customer-keyed shards. Customer and order-id lookups go to a single
+// shard; status and paged listings scatter to every shard in parallel and k-way merge on order date.
+// Stock lives on shard 0 (PRODUCT_SHARD), so placing an order for a customer on another shard is a
+// cross-shard write: the reservation commits on shard 0, then the order commits on the customer's
+// shard, and a failure there releases the stock again. A crash between the two leaves the stock
+// reserved with no order. Each leg opens its own transaction inside routeTo, so this must not be called
+// with a session already bound to the thread (open-in-view is off for that reason).
+// With sharding disabled every method is the plain repository call the controller used to make, in a
+// read-only transaction that loads what the JSON response needs.
+@Service
+public class ShardedOrderService {
+    private static final Comparator<Order> NEWEST_FIRST =
+            Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId).reversed();
+    private static final Sort NEWEST_FIRST_SORT = Sort.by(Sort.Direction.DESC, "orderDate", "id");
+    private static final int PRODUCT_SHARD = 0;
+
+    private final OrderRepository orderRepository;
+    private final OrderPlacementService orderPlacementService;
+    private final ShardRouter shardRouter;
+    private final ShardExecutor shardExecutor;
+
+    public ShardedOrderService(OrderRepository orderRepository, OrderPlacementService orderPlacementService,
+                               ShardRouter shardRouter, ShardExecutor shardExecutor) {
+        this.orderRepository = orderRepository;
+        this.orderPlacementService = orderPlacementService;
+        this.shardRouter = shardRouter;
+        this.shardExecutor = shardExecutor;
+    }
+
+    public OrderDTO placeOrder(OrderRequest request) {
+        if (request == null || request.getCustomerId() == null) {
+            return orderPlacementService.placeOrder(request);
+        }
+        int customerShard = shardRouter.shardForCustomer(request.getCustomerId());
+        if (!shardRouter.isSharded() || customerShard == PRODUCT_SHARD) {
+            return shardRouter.routeTo(PRODUCT_SHARD, () -> orderPlacementService.placeOrder(request));
+        }
+        Reservation reservation = shardRouter.routeTo(PRODUCT_SHARD, () -> orderPlacementService.reserve(request));
+        try {
+            return shardRouter.routeTo(customerShard, () -> orderPlacementService.record(reservation));
+        } catch (RuntimeException e) {
+            shardRouter.routeTo(PRODUCT_SHARD, () -> {
+                orderPlacementService.release(reservation);
+                return null;
+            });
+            throw e;
+        }
+    }
+
+    public List<Order> findByCustomerId(Long customerId) {
+        return shardExecutor.readOnShard(shardRouter.shardForCustomer(customerId),
+                () -> initialized(orderRepository.findByCustomerId(customerId)));
+    }
+
+    public Optional<Order> findById(Long id) {
+        OptionalInt shard = shardRouter.shardForOrder(id);
+        if (shard.isPresent()) {
+            return shardExecutor.readOnShard(shard.getAsInt(),
+                    () -> orderRepository.findById(id).map(ShardedOrderService::initialized));
+        }
+        // Ids minted before sharding carry no slot: probe every shard by primary key. The same id can
+        // exist on several shards, so only the copy on the shard that owns its customer counts
+        return shardExecutor.fanOut(s -> orderRepository.findById(id)
+                        .filter(order -> shardRouter.shardForCustomer(order.getCustomer().getId()) == s)
+                        .map(ShardedOrderService::initialized))
+                .stream()
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    public List<Order> findByStatus(OrderStatus status) {
+        if (!shardRouter.isSharded()) {
+            return shardExecutor.readOnShard(0, () -> initialized(orderRepository.findByStatus(status)));
+        }
+        List<List<Order>> perShard = shardExecutor.fanOut(s -> initialized(orderRepository.findByStatusOrderByOrderDateDescIdDesc(status)));
+        return ShardExecutor.mergeSorted(perShard, NEWEST_FIRST, 0, Integer.MAX_VALUE);
+    }
+
+    // Page p of size n needs the first (p + 1) * n rows of every shard; deep pages cost proportionally more
+    public Page<Order> findAll(int page, int size) {
+        PageRequest request = PageRequest.of(page, size, NEWEST_FIRST_SORT);
+        if (!shardRouter.isSharded()) {
+            return shardExecutor.readOnShard(0, () -> {
+                Page<Order> orders = orderRepository.findAll(request);
+                initialized(orders.getContent());
+                return orders;
+            });
+        }
+        int perShardLimit = Math.toIntExact((long) (page + 1) * size);
+        List<Page<Order>> perShard = shardExecutor.fanOut(s -> {
+            Page<Order> shardPage = orderRepository.findAll(PageRequest.of(0, perShardLimit, NEWEST_FIRST_SORT));
+            initialized(shardPage.getContent());
+            return shardPage;
+        });
+        long total = perShard.stream().filter(Objects::nonNull).mapToLong(Page::getTotalElements).sum();
+        List<Order> merged = ShardExecutor.mergeSorted(perShard.stream().map(Page::getContent).toList(),
+                NEWEST_FIRST, (long) page * size, size);
+        return new PageImpl<>(merged, request, total);
+    }
+
+    public List<Order> findStale(OrderStatus status, LocalDateTime before) {
+        return gather(shard -> orderRepository.findStaleOrders(status, before));
+    }
+
+    public List<Order> findNeedingAttention(LocalDateTime cutoffDate) {
+        return gather(shard -> orderRepository.findOrdersNeedingAttention(cutoffDate));
+    }
+
+    // Full orders for OpenOrderIndex hits, by primary key on the shard of each customer, in index order.
+    // An order whose status moved on since the index saw it is left out.
+    public List<Order> findIndexed(List<OrderSummaryDTO> summaries) {
+        Map<Integer, List<Long>> idsByShard = summaries.stream().collect(Collectors.groupingBy(
+                summary -> shardRouter.shardForCustomer(summary.getCustomerId()),
+                Collectors.mapping(OrderSummaryDTO::getId, Collectors.toList())));
+        Map<Long, Order> byId = new HashMap<>();
+        idsByShard.forEach((shard, ids) -> shardExecutor.readOnShard(shard,
+                () -> initialized(orderRepository.findAllById(ids))).forEach(order -> byId.put(order.getId(), order)));
+        return summaries.stream()
+                .map(summary -> Optional.ofNullable(byId.get(summary.getId()))
+                        .filter(order -> order.getStatus() == summary.getStatus()))
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    // Sharded results are concatenated and ordered by order date
+    private List<Order> gather(IntFunction<List<Order>> query) {
+        if (!shardRouter.isSharded()) {
+            return shardExecutor.readOnShard(0, () -> initialized(query.apply(0)));
+        }
+        return shardExecutor.fanOut(shard -> initialized(query.apply(shard))).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId))
+                .toList();
+    }
+
+    // Reads run in their own transaction, so load the items the JSON response needs before it ends
+    private static List<Order> initialized(List<Order> orders) {
+        orders.forEach(ShardedOrderService::initialized);
+        return orders;
+    }
+
+    private static Order initialized(Order order) {
+        Hibernate.initialize(order.getOrderItems());
+        return order;
+    }
+}
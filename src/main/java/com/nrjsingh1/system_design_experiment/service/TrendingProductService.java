@@ -0,0 +1,132 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import com.nrjsingh1.system_design_experiment.repository.OrderItemRepository;
+import com.nrjsingh1.system_design_experiment.shard.ShardExecutor;
+import com.nrjsingh1.system_design_experiment.sketch.HeavyHitter;
+import com.nrjsingh1.system_design_experiment.sketch.SlidingWindowHeavyHitters;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Live best-seller tracking. Each window is a bucketed Count-Min + Space-Saving sketch seeded from the
+// last 24h of order items at startup and then fed by committed order placements.
+@Service
+public class TrendingProductService {
+    private static final Logger log = LoggerFactory.getLogger(TrendingProductService.class);
+
+    public enum Window {
+        FIVE_MINUTES("5m", Duration.ofMinutes(5), 10),
+        ONE_HOUR("1h", Duration.ofHours(1), 12),
+        ONE_DAY("24h", Duration.ofHours(24), 24);
+
+        private final String label;
+        private final Duration length;
+        private final int buckets;
+
+        Window(String label, Duration length, int buckets) {
+            this.label = label;
+            this.length = length;
+            this.buckets = buckets;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static Optional<Window> fromLabel(String label) {
+            for (Window window : values()) {
+                if (window.label.equalsIgnoreCase(label)) {
+                    return Optional.of(window);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private final OrderItemRepository orderItemRepository;
+    private final ShardExecutor shardExecutor;
+    private final Map<Window, SlidingWindowHeavyHitters> windows = new EnumMap<>(Window.class);
+
+    public TrendingProductService(OrderItemRepository orderItemRepository,
+                                  ShardExecutor shardExecutor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${trending.sketch.depth:4}") int depth,
+                                  @Value("${trending.sketch.width:4096}") int width,
+                                  @Value("${trending.sketch.candidates-per-bucket:256}") int candidatesPerBucket) {
+        this.orderItemRepository = orderItemRepository;
+        this.shardExecutor = shardExecutor;
+        for (Window window : Window.values()) {
+            windows.put(window, new SlidingWindowHeavyHitters(window.length.toMillis(), window.buckets,
+                    depth, width, candidatesPerBucket));
+        }
+        Gauge.builder("trending.sketch.memory", this, TrendingProductService::sizeInBytes)
+            .description("Memory held by the trending product sketches")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedFromDatabase() {
+        LocalDateTime since = LocalDateTime.now().minus(Window.ONE_DAY.length);
+        int seeded = 0;
+        for (List<Object[]> sales : shardExecutor.fanOut(shard -> orderItemRepository.findSalesSince(since))) {
+            for (Object[] sale : sales) {
+                recordSale((Long) sale[0], (Integer) sale[1], toEpochMillis((LocalDateTime) sale[2]));
+            }
+            seeded += sales.size();
+        }
+        log.info("Seeded trending product sketches with {} order items since {}", seeded, since);
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        long timestamp = toEpochMillis(event.getOrderDate());
+        Long[] productIds = event.getProductIds();
+        Integer[] quantities = event.getQuantities();
+        for (int i = 0; i < productIds.length; i++) {
+            recordSale(productIds[i], quantities[i], timestamp);
+        }
+    }
+
+    public void recordSale(long productId, long quantity, long timestampMillis) {
+        for (SlidingWindowHeavyHitters window : windows.values()) {
+            window.add(productId, quantity, timestampMillis);
+        }
+    }
+
+    public List<HeavyHitter> topProducts(Window window, int limit) {
+        return windows.get(window).topK(limit, System.currentTimeMillis());
+    }
+
+    // Start of the time range the window currently covers (bucket-aligned, so up to one bucket shorter than nominal)
+    public LocalDateTime windowStart(Window window) {
+        long start = windows.get(window).windowStartMillis(System.currentTimeMillis());
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(start), ZoneId.systemDefault());
+    }
+
+    public long sizeInBytes() {
+        long total = 0;
+        for (SlidingWindowHeavyHitters window : windows.values()) {
+            total += window.sizeInBytes();
+        }
+        return total;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,21 @@
+package com.nrjsingh1.system_design_experiment.shard;
+
+// Shard selected for the current thread; read by ShardRoutingDataSource when a connection is acquired
+final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.nrjsingh1.system_design_experiment.shard;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// Runs repository work on one shard or on all of them. Each shard call gets its own read-only
+// transaction, so lazy associations must be initialised inside the callback. Without sharding
+// both methods run the callback on the current thread, in the same kind of transaction.
+@Component
+public class ShardExecutor implements DisposableBean {
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+
+    public ShardExecutor(ShardRouter shardRouter, ShardingProperties properties,
+                         PlatformTransactionManager transactionManager) {
+        this.shardRouter = shardRouter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("shard-fanout-");
+        threadFactory.setDaemon(true);
+        this.executor = shardRouter.isSharded()
+            ? Executors.newFixedThreadPool(properties.getFanOutThreads(), threadFactory)
+            : null;
+    }
+
+    public <T> T readOnShard(int shard, Supplier<T> query) {
+        return shardRouter.routeTo(shard, () -> readOnlyTransaction.execute(status -> query.get()));
+    }
+
+    // Parallel scatter: one result per shard, in shard order (results may be null)
+    public <T> List<T> fanOut(IntFunction<T> query) {
+        if (!shardRouter.isSharded()) {
+            return Collections.singletonList(readOnShard(0, () -> query.apply(0)));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardRouter.shardCount());
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> readOnShard(target, () -> query.apply(target)), executor));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    // k-way merge of per-shard lists that are each sorted by order; skips the first skip elements of
+    // the merged sequence and returns at most limit elements
+    public static <T> List<T> mergeSorted(List<? extends List<T>> sortedLists, Comparator<? super T> order,
+                                          long skip, int limit) {
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.head(), b.head()));
+        for (List<T> list : sortedLists) {
+            if (list != null && !list.isEmpty()) {
+                heads.add(new Cursor<>(list));
+            }
+        }
+        List<T> merged = new ArrayList<>(Math.min(limit, 1024));
+        long position = 0;
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor<T> cursor = heads.poll();
+            if (position++ >= skip) {
+                merged.add(cursor.head());
+            }
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class Cursor<T> {
+        private final List<T> list;
+        private int index;
+
+        Cursor(List<T> list) {
+            this.list = list;
+        }
+
+        T head() {
+            return list.get(index);
+        }
+
+        boolean advance() {
+            return ++index < list.size();
+        }
+    }
+}
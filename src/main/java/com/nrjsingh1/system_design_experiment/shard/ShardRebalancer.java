@@ -0,0 +1,207 @@
+package com.nrjsingh1.system_design_experiment.shard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// One-shot tool that moves every customer (with its orders and order items) to the shard that owns its
+// slot under the current sharding.shards[n].slots configuration, then exits:
+//
+//   java -jar app.jar --spring.profiles.active=sharded --spring.main.web-application-type=none \
+//        --sharding.rebalance.run=true [--sharding.rebalance.dry-run=true]
+//
+// Rows are copied to the target (ON CONFLICT DO NOTHING) and then deleted from the source, batch by
+// batch, so an interrupted run is safe to repeat. The source rows are only deleted once every copied
+// row is on the target under the same owner; a row already there with the same id but another owner
+// (or a customer email taken by another id) aborts the run with both shards left as they were.
+// Run it with the application stopped: fan-out reads
+// during a move can see a customer on both shards. Before moving anything the id sequences of all shards
+// are interleaved (stride 64, offset = shard index) so ids minted on different shards never collide.
+@Component
+@ConditionalOnProperty(name = "sharding.rebalance.run", havingValue = "true")
+public class ShardRebalancer implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private static final int SEQUENCE_STRIDE = 64;
+    private static final String[] SEQUENCES = {"customers_id_seq", "orders_id_seq", "order_items_id_seq"};
+    private static final int VERIFY_CHUNK = 10_000;
+
+    private final ShardRouter shardRouter;
+    private final DataSource dataSource;
+    private final ConfigurableApplicationContext context;
+    private final int batchSize;
+    private final boolean dryRun;
+
+    public ShardRebalancer(ShardRouter shardRouter,
+                           DataSource dataSource,
+                           ConfigurableApplicationContext context,
+                           @Value("${sharding.rebalance.batch-size:500}") int batchSize,
+                           @Value("${sharding.rebalance.dry-run:false}") boolean dryRun) {
+        this.shardRouter = shardRouter;
+        this.dataSource = dataSource;
+        this.context = context;
+        this.batchSize = batchSize;
+        this.dryRun = dryRun;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            if (!shardRouter.isSharded() || !(dataSource instanceof ShardRoutingDataSource routing)) {
+                log.warn("Sharding is not enabled; nothing to rebalance");
+            } else {
+                rebalance(routing);
+            }
+        } catch (RuntimeException e) {
+            log.error("Rebalance failed; moved batches are complete and the rest is untouched", e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private void rebalance(ShardRoutingDataSource routing) {
+        Map<Object, DataSource> resolved = routing.getResolvedDataSources();
+        int shards = shardRouter.shardCount();
+        if (shards > SEQUENCE_STRIDE) {
+            throw new IllegalStateException("At most " + SEQUENCE_STRIDE + " shards are supported");
+        }
+        Shard[] shardAccess = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            shardAccess[i] = new Shard(resolved.get(i));
+        }
+        if (!dryRun) {
+            alignSequences(shardAccess);
+        }
+        long moved = 0;
+        for (int source = 0; source < shards; source++) {
+            Map<Integer, List<Long>> misplaced = new TreeMap<>();
+            for (Long customerId : shardAccess[source].jdbc.queryForList("SELECT id FROM customers ORDER BY id", Long.class)) {
+                int owner = shardRouter.shardForCustomer(customerId);
+                if (owner != source) {
+                    misplaced.computeIfAbsent(owner, k -> new ArrayList<>()).add(customerId);
+                }
+            }
+            for (Map.Entry<Integer, List<Long>> entry : misplaced.entrySet()) {
+                List<Long> customerIds = entry.getValue();
+                log.info("Shard {} -> shard {}: {} customers{}", source, entry.getKey(), customerIds.size(),
+                    dryRun ? " (dry run)" : "");
+                if (dryRun) {
+                    continue;
+                }
+                for (int from = 0; from < customerIds.size(); from += batchSize) {
+                    List<Long> batch = customerIds.subList(from, Math.min(from + batchSize, customerIds.size()));
+                    move(shardAccess[source], shardAccess[entry.getKey()], batch);
+                    moved += batch.size();
+                }
+            }
+        }
+        log.info("Rebalance {}: {} customers moved", dryRun ? "planned" : "complete", moved);
+    }
+
+    private void move(Shard source, Shard target, List<Long> customerIds) {
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", customerIds);
+        List<Map<String, Object>> customers = source.named.queryForList(
+            "SELECT * FROM customers WHERE id IN (:ids)", ids);
+        List<Map<String, Object>> orders = source.named.queryForList(
+            "SELECT * FROM orders WHERE customer_id IN (:ids)", ids);
+        List<Map<String, Object>> items = source.named.queryForList(
+            "SELECT * FROM order_items WHERE order_id IN (SELECT id FROM orders WHERE customer_id IN (:ids))", ids);
+
+        target.transaction.executeWithoutResult(status -> {
+            insertRows(target.named, "customers", customers);
+            insertRows(target.named, "orders", orders);
+            insertRows(target.named, "order_items", items);
+            verifyCopied(target.named, "customers", "email", customers);
+            verifyCopied(target.named, "orders", "customer_id", orders);
+            verifyCopied(target.named, "order_items", "order_id", items);
+        });
+        source.transaction.executeWithoutResult(status -> {
+            source.named.update("DELETE FROM order_items WHERE order_id IN (SELECT id FROM orders WHERE customer_id IN (:ids))", ids);
+            source.named.update("DELETE FROM orders WHERE customer_id IN (:ids)", ids);
+            source.named.update("DELETE FROM customers WHERE id IN (:ids)", ids);
+        });
+    }
+
+    // Column lists come from the source rows, so the copy follows whatever the current schema is
+    private static void insertRows(NamedParameterJdbcTemplate jdbc, String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (:"
+            + String.join(", :", columns) + ") ON CONFLICT DO NOTHING";
+        SqlParameterSource[] batch = rows.stream().map(MapSqlParameterSource::new).toArray(SqlParameterSource[]::new);
+        jdbc.batchUpdate(sql, batch);
+    }
+
+    // ON CONFLICT DO NOTHING also skips rows whose id (or email) belongs to something else on the target;
+    // throwing here rolls the target batch back before anything is deleted from the source
+    private static void verifyCopied(NamedParameterJdbcTemplate jdbc, String table, String ownerColumn,
+                                     List<Map<String, Object>> rows) {
+        Map<Object, Object> expected = new HashMap<>();
+        rows.forEach(row -> expected.put(row.get("id"), row.get(ownerColumn)));
+        List<Object> ids = new ArrayList<>(expected.keySet());
+        Map<Object, Object> actual = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += VERIFY_CHUNK) {
+            MapSqlParameterSource chunk = new MapSqlParameterSource("ids", ids.subList(from, Math.min(from + VERIFY_CHUNK, ids.size())));
+            jdbc.query("SELECT id, " + ownerColumn + " FROM " + table + " WHERE id IN (:ids)", chunk,
+                rs -> { actual.put(rs.getObject(1), rs.getObject(2)); });
+        }
+        long conflicts = expected.entrySet().stream()
+            .filter(entry -> !entry.getValue().equals(actual.get(entry.getKey())))
+            .count();
+        if (conflicts > 0) {
+            throw new IllegalStateException(conflicts + " " + table + " rows conflict with different rows on the target shard; "
+                + "batch rolled back and the source left intact");
+        }
+    }
+
+    // Restarts each sequence above the highest value used on any shard, at an offset unique to the shard
+    private void alignSequences(Shard[] shards) {
+        for (String sequence : SEQUENCES) {
+            long max = 0;
+            for (Shard shard : shards) {
+                Long last = shard.jdbc.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+                max = Math.max(max, last != null ? last : 0);
+            }
+            long base = (max / SEQUENCE_STRIDE + 1) * SEQUENCE_STRIDE;
+            for (int i = 0; i < shards.length; i++) {
+                shards[i].jdbc.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + SEQUENCE_STRIDE);
+                shards[i].jdbc.queryForObject("SELECT setval('" + sequence + "', " + (base + i) + ", false)", Long.class);
+            }
+            log.info("Sequence {} interleaved across {} shards from {}", sequence, shards.length, base);
+        }
+    }
+
+    private static final class Shard {
+        private final JdbcTemplate jdbc;
+        private final NamedParameterJdbcTemplate named;
+        private final TransactionTemplate transaction;
+
+        Shard(DataSource dataSource) {
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.named = new NamedParameterJdbcTemplate(jdbc);
+            this.transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+    }
+}
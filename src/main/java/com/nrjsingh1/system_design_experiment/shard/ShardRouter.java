@@ -0,0 +1,115 @@
+package com.nrjsingh1.system_design_experiment.shard;
+
+import org.springframework.stereotype.Component;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.function.Supplier;
+
+// Maps customer ids to shards through a fixed ring of 1024 slots: slot = hash(customerId), and each
+// shard owns a set of slots. Moving slots between shards (ShardRebalancer) never changes a customer's
+// slot, and order ids minted in sharded mode carry the slot, so an order id alone finds its shard.
+@Component
+public class ShardRouter {
+    public static final int SLOT_BITS = 10;
+    public static final int SLOTS = 1 << SLOT_BITS;
+
+    // marker bit | sequence value << SLOT_BITS | slot; stays below 2^53 for sequence values < 2^42
+    static final long SHARDED_ID_MARKER = 1L << 52;
+
+    private final int shardCount;
+    private final int[] slotToShard;
+
+    public ShardRouter(ShardingProperties properties) {
+        if (properties.isEnabled() && properties.getShards().size() > 1) {
+            this.shardCount = properties.getShards().size();
+            this.slotToShard = assignSlots(properties.getShards());
+        } else {
+            this.shardCount = 1;
+            this.slotToShard = new int[SLOTS];
+        }
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    // Fibonacci hashing: the top bits of the product spread sequential ids evenly over the slots
+    public static int slotFor(long customerId) {
+        return (int) ((customerId * 0x9E3779B97F4A7C15L) >>> (64 - SLOT_BITS));
+    }
+
+    public int shardForCustomer(long customerId) {
+        return slotToShard[slotFor(customerId)];
+    }
+
+    // Empty for ids minted before sharding was enabled, which carry no slot
+    public OptionalInt shardForOrder(long orderId) {
+        if (!isSharded()) {
+            return OptionalInt.of(0);
+        }
+        if ((orderId & SHARDED_ID_MARKER) == 0) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(slotToShard[(int) (orderId & (SLOTS - 1))]);
+    }
+
+    // Bits to OR into (sequence << SLOT_BITS) for a new order of this customer; null when not sharded
+    public Long orderIdTag(long customerId) {
+        return isSharded() ? SHARDED_ID_MARKER | slotFor(customerId) : null;
+    }
+
+    // Runs the action with connections routed to the shard; the caller owns any transaction, which must
+    // begin inside the action so it acquires its connection from the right pool
+    public <T> T routeTo(int shard, Supplier<T> action) {
+        if (!isSharded()) {
+            return action.get();
+        }
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    static int[] assignSlots(List<ShardingProperties.Shard> shards) {
+        int[] assignment = new int[SLOTS];
+        boolean explicit = shards.stream().anyMatch(shard -> shard.getSlots() != null);
+        if (!explicit) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                assignment[slot] = (int) ((long) slot * shards.size() / SLOTS);
+            }
+            return assignment;
+        }
+        Arrays.fill(assignment, -1);
+        for (int shard = 0; shard < shards.size(); shard++) {
+            String range = shards.get(shard).getSlots();
+            if (range == null) {
+                throw new IllegalStateException("sharding.shards[" + shard + "].slots is required when any shard sets slots");
+            }
+            for (String part : range.split(",")) {
+                String[] bounds = part.trim().split("-");
+                int from = Integer.parseInt(bounds[0].trim());
+                int to = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : from;
+                for (int slot = from; slot <= to; slot++) {
+                    if (slot < 0 || slot >= SLOTS || assignment[slot] != -1) {
+                        throw new IllegalStateException("Slot " + slot + " is out of range or assigned twice");
+                    }
+                    assignment[slot] = shard;
+                }
+            }
+        }
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (assignment[slot] == -1) {
+                throw new IllegalStateException("Slot " + slot + " is not assigned to any shard");
+            }
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,13 @@
+package com.nrjsingh1.system_design_experiment.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// Hands out connections from the pool of the shard selected in ShardContext. Unrouted work (products,
+// customer search, background jobs that are not shard-aware) goes to shard 0, which is the default.
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
@@ -0,0 +1,135 @@
+package com.nrjsingh1.system_design_experiment.shard;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// With sharding.enabled=true the application DataSource becomes a ShardRoutingDataSource over one
+// Hikari pool per sharding.shards[n] entry (pool settings inherited from spring.datasource.hikari.*),
+// and Flyway migrates every shard. Otherwise Spring Boot's single DataSource is used unchanged.
+// Sample customers and orders (V2) are kept on shard 0 only; the rebalance tool spreads them out.
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+    public DataSource dataSource(ShardingProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        List<ShardingProperties.Shard> shards = properties.getShards();
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("sharding.enabled=true requires at least one sharding.shards[n].url");
+        }
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shardPool(i, shards.get(i), environment, meterRegistry));
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(targets.get(0));
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        log.info("Sharding enabled across {} databases", shards.size());
+        return routing;
+    }
+
+    // Registered unconditionally so the decisions below are made at runtime, also in an AOT build where
+    // bean conditions are frozen. A CDS training run (spring.context.exit=onRefresh) has no database,
+    // so it skips migrations; the run stops after refresh and never serves a request.
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(DataSource dataSource, Environment environment) {
+        return flyway -> {
+            if ("onRefresh".equals(environment.getProperty("spring.context.exit"))) {
+                log.info("Training run: skipping database migrations");
+                return;
+            }
+            if (!(dataSource instanceof ShardRoutingDataSource routing)) {
+                flyway.migrate();
+                return;
+            }
+            routing.getResolvedDataSources().forEach((shard, shardDataSource) -> {
+                log.info("Migrating shard {}", shard);
+                List<Callback> callbacks = new ArrayList<>(List.of(flyway.getConfiguration().getCallbacks()));
+                if (!Integer.valueOf(0).equals(shard)) {
+                    callbacks.add(new SampleDataOnShardZero());
+                }
+                Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .callbacks(callbacks.toArray(Callback[]::new))
+                    .dataSource(shardDataSource)
+                    .load()
+                    .migrate();
+            });
+        };
+    }
+
+    // Copies of the same sample customers on every shard would share ids and emails, and the rebalancer
+    // would collide on them; only the product catalog (reference data for order item FKs) is kept
+    private static final class SampleDataOnShardZero implements Callback {
+        private static final MigrationVersion SAMPLE_DATA = MigrationVersion.fromVersion("2");
+
+        @Override
+        public boolean supports(Event event, Context context) {
+            return event == Event.AFTER_EACH_MIGRATE && context.getMigrationInfo() != null
+                && SAMPLE_DATA.equals(context.getMigrationInfo().getVersion());
+        }
+
+        @Override
+        public boolean canHandleInTransaction(Event event, Context context) {
+            return true;
+        }
+
+        @Override
+        public void handle(Event event, Context context) {
+            try (Statement statement = context.getConnection().createStatement()) {
+                statement.execute("TRUNCATE order_items, orders, customers");
+            } catch (SQLException e) {
+                throw new FlywayException("Could not remove sample customers from a non-zero shard", e);
+            }
+        }
+
+        @Override
+        public String getCallbackName() {
+            return "sample-data-on-shard-zero";
+        }
+    }
+
+    private static HikariDataSource shardPool(int index, ShardingProperties.Shard shard, Environment environment,
+                                              MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(config));
+        config.setJdbcUrl(shard.getUrl());
+        config.setUsername(shard.getUsername() != null ? shard.getUsername() : environment.getProperty("spring.datasource.username"));
+        config.setPassword(shard.getPassword() != null ? shard.getPassword() : environment.getProperty("spring.datasource.password"));
+        config.setPoolName("shard-" + index);
+        if (shard.getMaximumPoolSize() != null) {
+            config.setMaximumPoolSize(shard.getMaximumPoolSize());
+        }
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+}
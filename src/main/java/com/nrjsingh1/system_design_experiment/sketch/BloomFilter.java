@@ -0,0 +1,97 @@
+package com.nrjsingh1.system_design_experiment.sketch;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter over strings. mightContain never returns false for a key that was put; false positives
+// occur at roughly expectedFpp(). Adds and lookups are lock-free. Keys cannot be removed, and the bit
+// array cannot grow - callers resize by building a larger filter and swapping it in.
+public class BloomFilter {
+    private final long numBits;
+    private final long mask;
+    private final int numHashes;
+    private final AtomicLongArray words;
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    private BloomFilter(long numBits, int numHashes) {
+        this.numBits = numBits;
+        this.mask = numBits - 1;
+        this.numHashes = numHashes;
+        this.words = new AtomicLongArray((int) (numBits >>> 6));
+    }
+
+    // Sized for the given number of keys at the target false-positive probability; the bit count is
+    // rounded up to a power of two, so the real rate at that load is somewhat better than requested
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and fpp in (0, 1)");
+        }
+        double optimalBits = -expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2));
+        long numBits = Math.max(64, Long.highestOneBit((long) Math.ceil(optimalBits) - 1) << 1);
+        if (numBits > (long) Integer.MAX_VALUE << 6) {
+            throw new IllegalArgumentException("Bloom filter too large: " + numBits + " bits");
+        }
+        int numHashes = (int) Math.max(1, Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        return new BloomFilter(numBits, Math.min(numHashes, 16));
+    }
+
+    // Returns true if any bit changed, i.e. the key was definitely not present before
+    public boolean put(String key) {
+        long h1 = Hashing.hash64(key);
+        long h2 = Hashing.mix64(h1) | 1;
+        boolean changed = false;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            int index = (int) (bit >>> 6);
+            long bitMask = 1L << bit;
+            long word = words.get(index);
+            while ((word & bitMask) == 0) {
+                if (words.compareAndSet(index, word, word | bitMask)) {
+                    bitsSet.incrementAndGet();
+                    changed = true;
+                    break;
+                }
+                word = words.get(index);
+            }
+        }
+        return changed;
+    }
+
+    public boolean mightContain(String key) {
+        long h1 = Hashing.hash64(key);
+        long h2 = Hashing.mix64(h1) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Probability that a key never put is reported present, from the current fill ratio
+    public double expectedFpp() {
+        return Math.pow((double) bitsSet.get() / numBits, numHashes);
+    }
+
+    // Estimated number of distinct keys put, from the fill ratio
+    public long approximateElementCount() {
+        double fill = (double) bitsSet.get() / numBits;
+        if (fill >= 1.0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.round(-Math.log1p(-fill) * numBits / numHashes);
+    }
+
+    public long bitSize() {
+        return numBits;
+    }
+
+    public int numHashes() {
+        return numHashes;
+    }
+
+    public long sizeInBytes() {
+        return (numBits >>> 3) + 16L;
+    }
+}
@@ -0,0 +1,77 @@
+package com.nrjsingh1.system_design_experiment.sketch;
+
+import java.util.Arrays;
+
+// Count-Min sketch over long keys. Estimates never under-count; over-count is bounded by
+// total / width with probability 1 - 2^-depth. Sketches of the same shape can be added and subtracted.
+public class CountMinSketch {
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final long[] counts;
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("depth must be positive and width a power of two");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.mask = width - 1;
+        this.counts = new long[depth * width];
+    }
+
+    public void add(long key, long count) {
+        long h1 = Hashing.mix64(key);
+        long h2 = Hashing.mix64(h1);
+        for (int row = 0; row < depth; row++) {
+            counts[row * width + (int) ((h1 + row * h2) & mask)] += count;
+        }
+        total += count;
+    }
+
+    public long estimate(long key) {
+        long h1 = Hashing.mix64(key);
+        long h2 = Hashing.mix64(h1);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counts[row * width + (int) ((h1 + row * h2) & mask)]);
+        }
+        return min;
+    }
+
+    public void merge(CountMinSketch other) {
+        checkShape(other);
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    public void subtract(CountMinSketch other) {
+        checkShape(other);
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] -= other.counts[i];
+        }
+        total -= other.total;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0L);
+        total = 0;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long sizeInBytes() {
+        return (long) counts.length * Long.BYTES;
+    }
+
+    private void checkShape(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Sketches must have the same depth and width");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.nrjsingh1.system_design_experiment.sketch;
+
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    // Stafford variant 13 of the MurmurHash3 64-bit finalizer
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // FNV-1a over UTF-16 code units, finalised with mix64 so all bits are usable as indexes
+    static long hash64(CharSequence value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return mix64(h);
+    }
+}
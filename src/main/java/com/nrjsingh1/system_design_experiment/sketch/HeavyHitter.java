@@ -0,0 +1,19 @@
+package com.nrjsingh1.system_design_experiment.sketch;
+
+public class HeavyHitter {
+    private final long key;
+    private final long estimate;
+
+    public HeavyHitter(long key, long estimate) {
+        this.key = key;
+        this.estimate = estimate;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public long getEstimate() {
+        return estimate;
+    }
+}
@@ -0,0 +1,136 @@
+package com.nrjsingh1.system_design_experiment.sketch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Top-K over a sliding time window. The window is a ring of fixed-length buckets, each with its own
+// Count-Min sketch and Space-Saving candidate list. A running window sketch is the sum of the bucket
+// sketches, so expiring a bucket is a subtraction and a point estimate is a single sketch lookup.
+// Memory is fixed by the constructor arguments, independent of how many distinct keys are seen.
+public class SlidingWindowHeavyHitters {
+    private final long bucketMillis;
+    private final Bucket[] buckets;
+    private final CountMinSketch window;
+    private long latestEpoch = Long.MIN_VALUE;
+
+    // Last top-K answer, reused until the next write or bucket rotation
+    private long version;
+    private long cachedVersion = -1;
+    private List<HeavyHitter> cachedTopK = List.of();
+    private int cachedK;
+
+    private static final class Bucket {
+        private long epoch = Long.MIN_VALUE;
+        private final CountMinSketch sketch;
+        private final SpaceSaving candidates;
+
+        private Bucket(int depth, int width, int candidatesPerBucket) {
+            this.sketch = new CountMinSketch(depth, width);
+            this.candidates = new SpaceSaving(candidatesPerBucket);
+        }
+    }
+
+    public SlidingWindowHeavyHitters(long windowMillis, int bucketCount, int depth, int width, int candidatesPerBucket) {
+        if (bucketCount <= 0 || windowMillis < bucketCount) {
+            throw new IllegalArgumentException("window must span at least one millisecond per bucket");
+        }
+        this.bucketMillis = windowMillis / bucketCount;
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket(depth, width, candidatesPerBucket);
+        }
+        this.window = new CountMinSketch(depth, width);
+    }
+
+    public synchronized void add(long key, long count, long timestampMillis) {
+        long epoch = Math.floorDiv(timestampMillis, bucketMillis);
+        if (epoch > latestEpoch) {
+            advanceTo(epoch);
+        } else if (epoch <= latestEpoch - buckets.length) {
+            return; // older than the window
+        }
+        Bucket bucket = buckets[slot(epoch)];
+        bucket.sketch.add(key, count);
+        bucket.candidates.add(key, count);
+        window.add(key, count);
+        version++;
+    }
+
+    public synchronized long estimate(long key, long nowMillis) {
+        advanceTo(Math.floorDiv(nowMillis, bucketMillis));
+        return window.estimate(key);
+    }
+
+    public synchronized List<HeavyHitter> topK(int k, long nowMillis) {
+        advanceTo(Math.floorDiv(nowMillis, bucketMillis));
+        if (cachedVersion == version && k <= cachedK) {
+            return cachedTopK.subList(0, Math.min(k, cachedTopK.size()));
+        }
+        PriorityQueue<HeavyHitter> best = new PriorityQueue<>(k + 1, Comparator.comparingLong(HeavyHitter::getEstimate));
+        Set<Long> seen = new HashSet<>();
+        for (Bucket bucket : buckets) {
+            bucket.candidates.forEachKey(key -> {
+                if (!seen.add(key)) {
+                    return;
+                }
+                long estimate = window.estimate(key);
+                if (best.size() < k) {
+                    best.add(new HeavyHitter(key, estimate));
+                } else if (estimate > best.peek().getEstimate()) {
+                    best.poll();
+                    best.add(new HeavyHitter(key, estimate));
+                }
+            });
+        }
+        List<HeavyHitter> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingLong(HeavyHitter::getEstimate).reversed());
+        cachedTopK = List.copyOf(result);
+        cachedK = k;
+        cachedVersion = version;
+        return cachedTopK;
+    }
+
+    // Inclusive start of the time range currently covered by the window
+    public synchronized long windowStartMillis(long nowMillis) {
+        long epoch = Math.max(Math.floorDiv(nowMillis, bucketMillis), latestEpoch);
+        return (epoch - buckets.length + 1) * bucketMillis;
+    }
+
+    public synchronized long getTotal(long nowMillis) {
+        advanceTo(Math.floorDiv(nowMillis, bucketMillis));
+        return window.getTotal();
+    }
+
+    public long sizeInBytes() {
+        long bucketBytes = buckets[0].sketch.sizeInBytes() + buckets[0].candidates.sizeInBytes();
+        return bucketBytes * buckets.length + window.sizeInBytes();
+    }
+
+    // Expire buckets that fall out of the window as time moves forward to the given epoch
+    private void advanceTo(long epoch) {
+        if (epoch <= latestEpoch) {
+            return;
+        }
+        long from = latestEpoch == Long.MIN_VALUE ? epoch - buckets.length + 1
+                : Math.max(latestEpoch + 1, epoch - buckets.length + 1);
+        for (long e = from; e <= epoch; e++) {
+            Bucket bucket = buckets[slot(e)];
+            if (bucket.epoch != Long.MIN_VALUE) {
+                window.subtract(bucket.sketch);
+                bucket.sketch.clear();
+                bucket.candidates.clear();
+            }
+            bucket.epoch = e;
+        }
+        latestEpoch = epoch;
+        version++;
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) buckets.length);
+    }
+}
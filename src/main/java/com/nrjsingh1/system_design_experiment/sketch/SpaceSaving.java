@@ -0,0 +1,113 @@
+package com.nrjsingh1.system_design_experiment.sketch;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+// Space-Saving heavy-hitter summary with a fixed number of counters. Any key whose true count
+// exceeds total / capacity is guaranteed to be tracked. Callers take point estimates from a sketch;
+// this structure only decides which keys are worth estimating.
+// Counters sit in an indexed min-heap so both increments and evictions are O(log capacity).
+public class SpaceSaving {
+    private final int capacity;
+    private final long[] keys;
+    private final long[] counts;
+    private final int[] heap;       // heap position -> counter slot
+    private final int[] positions;  // counter slot -> heap position
+    private final Map<Long, Integer> slots;
+    private int size;
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.counts = new long[capacity];
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.slots = new HashMap<>(capacity * 2);
+    }
+
+    public void add(long key, long count) {
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            counts[slot] += count;
+            siftDown(positions[slot]);
+            return;
+        }
+        if (size < capacity) {
+            int newSlot = size++;
+            keys[newSlot] = key;
+            counts[newSlot] = count;
+            heap[newSlot] = newSlot;
+            positions[newSlot] = newSlot;
+            slots.put(key, newSlot);
+            siftUp(newSlot);
+            return;
+        }
+        // Replace the smallest counter; the new key inherits its count
+        int min = heap[0];
+        slots.remove(keys[min]);
+        keys[min] = key;
+        counts[min] += count;
+        slots.put(key, min);
+        siftDown(0);
+    }
+
+    public void forEachKey(LongConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(keys[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        slots.clear();
+        size = 0;
+    }
+
+    public long sizeInBytes() {
+        // two long arrays, two int arrays and a rough per-entry cost for the slot map
+        return (long) capacity * (2 * Long.BYTES + 2 * Integer.BYTES + 48);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (counts[heap[parent]] <= counts[heap[position]]) {
+                return;
+            }
+            swap(parent, position);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int left = 2 * position + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int smallest = right < size && counts[heap[right]] < counts[heap[left]] ? right : left;
+            if (counts[heap[position]] <= counts[heap[smallest]]) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int slotA = heap[a];
+        int slotB = heap[b];
+        heap[a] = slotB;
+        heap[b] = slotA;
+        positions[slotB] = a;
+        positions[slotA] = b;
+    }
+}
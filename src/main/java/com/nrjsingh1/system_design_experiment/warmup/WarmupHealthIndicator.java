@@ -0,0 +1,27 @@
+package com.nrjsingh1.system_design_experiment.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// "warmup" health contributor; part of the readiness group, so /actuator/health/readiness (and the
+// overall /actuator/health) report DOWN until WarmupRunner finishes. Liveness is unaffected.
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+    private final WarmupRunner warmupRunner;
+
+    public WarmupHealthIndicator(WarmupRunner warmupRunner) {
+        this.warmupRunner = warmupRunner;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmupRunner.isComplete() ? Health.up() : Health.down();
+        return builder
+            .withDetail("state", warmupRunner.getState())
+            .withDetail("rounds", warmupRunner.getRounds())
+            .withDetail("lastRoundP95Ms", warmupRunner.getLastRoundP95Ms())
+            .withDetail("durationMs", warmupRunner.getDurationMs())
+            .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.nrjsingh1.system_design_experiment.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// warmup.* - in-process replay of a read mix after startup; readiness stays DOWN until it settles
+@ConfigurationProperties(prefix = "warmup")
+public class WarmupProperties {
+    private boolean enabled = true;
+    private int threads = 4;
+    // Calls per round; the round p95 is what has to settle
+    private int roundSize = 200;
+    private int minRounds = 5;
+    // Consecutive rounds with p95 under the threshold
+    private int settleRounds = 3;
+    private long latencyThresholdMs = 50;
+    // Readiness goes UP after this long even if latency never settled
+    private long maxDurationMs = 120000;
+    private boolean prefillPool = true;
+    // Scenario name -> relative weight; unknown names are ignored, 0 disables a scenario
+    private Map<String, Integer> mix = new LinkedHashMap<>();
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getRoundSize() {
+        return roundSize;
+    }
+
+    public void setRoundSize(int roundSize) {
+        this.roundSize = roundSize;
+    }
+
+    public int getMinRounds() {
+        return minRounds;
+    }
+
+    public void setMinRounds(int minRounds) {
+        this.minRounds = minRounds;
+    }
+
+    public int getSettleRounds() {
+        return settleRounds;
+    }
+
+    public void setSettleRounds(int settleRounds) {
+        this.settleRounds = settleRounds;
+    }
+
+    public long getLatencyThresholdMs() {
+        return latencyThresholdMs;
+    }
+
+    public void setLatencyThresholdMs(long latencyThresholdMs) {
+        this.latencyThresholdMs = latencyThresholdMs;
+    }
+
+    public long getMaxDurationMs() {
+        return maxDurationMs;
+    }
+
+    public void setMaxDurationMs(long maxDurationMs) {
+        this.maxDurationMs = maxDurationMs;
+    }
+
+    public boolean isPrefillPool() {
+        return prefillPool;
+    }
+
+    public void setPrefillPool(boolean prefillPool) {
+        this.prefillPool = prefillPool;
+    }
+
+    public Map<String, Integer> getMix() {
+        return mix;
+    }
+
+    public void setMix(Map<String, Integer> mix) {
+        this.mix = mix;
+    }
+}
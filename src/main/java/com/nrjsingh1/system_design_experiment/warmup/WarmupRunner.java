@@ -0,0 +1,341 @@
+package com.nrjsingh1.system_design_experiment.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nrjsingh1.system_design_experiment.controller.CustomerController;
+import com.nrjsingh1.system_design_experiment.controller.OrderController;
+import com.nrjsingh1.system_design_experiment.controller.ProductController;
+import com.nrjsingh1.system_design_experiment.config.WarmupTraffic;
+import com.nrjsingh1.system_design_experiment.model.Order.OrderStatus;
+import com.nrjsingh1.system_design_experiment.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Replays a weighted read mix through the controller beans (bulkhead aspects, repositories, Hibernate
+// query plans, Jackson serialization) on a few threads after startup, and opens every pooled
+// connection up front instead of letting Hikari grow from minimum-idle under live traffic. Rounds
+// repeat until the round p95 stays under warmup.latency-threshold-ms; until then the "warmup" health
+// indicator keeps the readiness group DOWN. Like real requests (open-in-view is off), each call loads
+// what it serializes inside the services' own transactions. Replayed calls are flagged (WarmupTraffic)
+// so the controllers' business meters and @Timed timers skip them; pool, bulkhead and JFR meters still
+// include warm-up traffic.
+@Component
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupRunner {
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final Map<String, Integer> DEFAULT_MIX = new LinkedHashMap<>();
+    static {
+        DEFAULT_MIX.put("products.page", 10);
+        DEFAULT_MIX.put("products.by-id", 15);
+        DEFAULT_MIX.put("products.by-category", 10);
+        DEFAULT_MIX.put("products.available", 5);
+        DEFAULT_MIX.put("products.low-stock", 5);
+        DEFAULT_MIX.put("products.trending", 5);
+        DEFAULT_MIX.put("customers.by-id", 10);
+        DEFAULT_MIX.put("customers.by-last-name", 5);
+        DEFAULT_MIX.put("customers.by-email", 10);
+        DEFAULT_MIX.put("orders.by-id", 10);
+        DEFAULT_MIX.put("orders.by-customer", 10);
+        DEFAULT_MIX.put("orders.by-status", 1);
+        DEFAULT_MIX.put("orders.needs-attention", 3);
+    }
+
+    public enum State { PENDING, WARMING, SETTLED, TIMED_OUT, FAILED, DISABLED }
+
+    private final WarmupProperties properties;
+    private final ProductController productController;
+    private final CustomerController customerController;
+    private final OrderController orderController;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+
+    private volatile State state;
+    private volatile int rounds;
+    private volatile double lastRoundP95Ms;
+    private volatile long durationMs;
+    private volatile boolean stopping;
+    private ExecutorService workers;
+
+    private final Counter succeeded;
+    private final Counter failed;
+
+    public WarmupRunner(WarmupProperties properties,
+                        ProductController productController,
+                        CustomerController customerController,
+                        OrderController orderController,
+                        JdbcTemplate jdbcTemplate,
+                        DataSource dataSource,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.productController = productController;
+        this.customerController = customerController;
+        this.orderController = orderController;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.state = properties.isEnabled() ? State.PENDING : State.DISABLED;
+
+        Gauge.builder("warmup.duration", this, runner -> runner.durationMs / 1000.0)
+            .description("Time from application ready until the warm-up mix settled (or gave up); 0 while running")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("warmup.rounds", this, runner -> runner.rounds)
+            .description("Warm-up rounds replayed")
+            .register(meterRegistry);
+        Gauge.builder("warmup.round.latency.p95", this, runner -> runner.lastRoundP95Ms)
+            .description("p95 latency of the last warm-up round")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        this.succeeded = callCounter(meterRegistry, "success");
+        this.failed = callCounter(meterRegistry, "error");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (state != State.PENDING) {
+            return;
+        }
+        state = State.WARMING;
+        workers = Executors.newFixedThreadPool(Math.max(1, properties.getThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Thread coordinator = new Thread(this::run, "warmup-coordinator");
+        coordinator.setDaemon(true);
+        coordinator.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isComplete() {
+        return state != State.PENDING && state != State.WARMING;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public double getLastRoundP95Ms() {
+        return lastRoundP95Ms;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    private void run() {
+        long start = System.currentTimeMillis();
+        long deadline = start + properties.getMaxDurationMs();
+        State outcome;
+        try {
+            if (properties.isPrefillPool()) {
+                prefillPools();
+            }
+            outcome = replayUntilSettled(buildScenarios(), deadline);
+        } catch (Exception e) {
+            log.warn("Warm-up failed, marking the application ready anyway", e);
+            outcome = State.FAILED;
+        } finally {
+            workers.shutdown();
+        }
+        durationMs = Math.max(1, System.currentTimeMillis() - start);
+        state = outcome;
+        log.info("Warm-up {} after {} rounds in {}ms (last round p95 {}ms, {} calls failed)",
+            outcome, rounds, durationMs, String.format("%.1f", lastRoundP95Ms), (long) failed.count());
+    }
+
+    private State replayUntilSettled(List<Scenario> scenarios, long deadline) throws Exception {
+        if (scenarios.isEmpty()) {
+            return State.SETTLED;
+        }
+        int[] cumulativeWeights = new int[scenarios.size()];
+        int total = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            total += scenarios.get(i).weight;
+            cumulativeWeights[i] = total;
+        }
+        int roundSize = Math.max(1, properties.getRoundSize());
+        int calm = 0;
+        while (!stopping) {
+            if (System.currentTimeMillis() >= deadline) {
+                return State.TIMED_OUT;
+            }
+            List<Future<Long>> calls = new ArrayList<>(roundSize);
+            for (int i = 0; i < roundSize; i++) {
+                int pick = Arrays.binarySearch(cumulativeWeights, ThreadLocalRandom.current().nextInt(total) + 1);
+                Scenario scenario = scenarios.get(pick >= 0 ? pick : -pick - 1);
+                calls.add(workers.submit(() -> replay(scenario)));
+            }
+            long[] latencies = new long[roundSize];
+            for (int i = 0; i < roundSize; i++) {
+                latencies[i] = calls.get(i).get();
+            }
+            Arrays.sort(latencies);
+            lastRoundP95Ms = latencies[(int) Math.ceil(roundSize * 0.95) - 1] / 1_000_000.0;
+            rounds++;
+            calm = lastRoundP95Ms <= properties.getLatencyThresholdMs() ? calm + 1 : 0;
+            if (rounds >= properties.getMinRounds() && calm >= properties.getSettleRounds()) {
+                return State.SETTLED;
+            }
+        }
+        return State.FAILED;
+    }
+
+    // Nanos spent on the call, including serializing the response body
+    private long replay(Scenario scenario) {
+        long start = System.nanoTime();
+        WarmupTraffic.begin();
+        try {
+            Object body = scenario.call.get();
+            if (body instanceof ResponseEntity<?> response) {
+                body = response.getBody();
+            }
+            if (body != null) {
+                objectMapper.writeValueAsBytes(body);
+            }
+            succeeded.increment();
+        } catch (Exception e) {
+            // Bulkhead rejections, unknown sample ids and serialization errors still count as warm-up
+            failed.increment();
+            log.debug("Warm-up call {} failed: {}", scenario.name, e.toString());
+        } finally {
+            WarmupTraffic.end();
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Opens maximum-pool-size connections on every pool (one per shard) and hands them back, so they
+    // sit idle in the pool until idle-timeout instead of being created on the first busy requests
+    private void prefillPools() {
+        Collection<DataSource> pools = dataSource instanceof ShardRoutingDataSource routing
+            ? routing.getResolvedDataSources().values()
+            : List.of(dataSource);
+        for (DataSource pool : pools) {
+            if (!(pool instanceof HikariDataSource hikari)) {
+                continue;
+            }
+            List<Connection> held = new ArrayList<>();
+            try {
+                for (int i = 0; i < hikari.getMaximumPoolSize(); i++) {
+                    Connection connection = hikari.getConnection();
+                    held.add(connection);
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("SELECT 1");
+                    }
+                }
+                log.info("Warm-up opened {} connections on pool {}", held.size(), hikari.getPoolName());
+            } catch (SQLException e) {
+                log.warn("Warm-up could only open {} connections on pool {}: {}", held.size(), hikari.getPoolName(), e.getMessage());
+            } finally {
+                for (Connection connection : held) {
+                    try {
+                        connection.close();
+                    } catch (SQLException ignored) {
+                        // returned to the pool or already broken; nothing to do
+                    }
+                }
+            }
+        }
+    }
+
+    // Parameters are sampled from the data so point reads touch real rows (and their pages)
+    private List<Scenario> buildScenarios() {
+        List<Long> productIds = jdbcTemplate.queryForList("SELECT id FROM products ORDER BY random() LIMIT 200", Long.class);
+        List<String> categories = jdbcTemplate.queryForList("SELECT DISTINCT category FROM products", String.class);
+        List<Long> customerIds = jdbcTemplate.queryForList("SELECT id FROM customers ORDER BY random() LIMIT 200", Long.class);
+        List<String> lastNames = jdbcTemplate.queryForList("SELECT last_name FROM customers ORDER BY random() LIMIT 50", String.class);
+        List<String> emails = jdbcTemplate.queryForList("SELECT email FROM customers ORDER BY random() LIMIT 200", String.class);
+        List<Long> orderIds = jdbcTemplate.queryForList("SELECT id FROM orders ORDER BY random() LIMIT 200", Long.class);
+
+        Map<String, Supplier<Object>> calls = new LinkedHashMap<>();
+        calls.put("products.page", () -> productController.getAllProducts(ThreadLocalRandom.current().nextInt(10), 20));
+        calls.put("products.by-id", () -> productController.getProductById(any(productIds)));
+        calls.put("products.by-category", () -> productController.getProductsByCategory(any(categories)));
+        calls.put("products.available", () -> productController.getAvailableProducts());
+        calls.put("products.low-stock", () -> productController.getLowStockProducts(50));
+        calls.put("products.trending", () -> productController.getTrendingProducts("1h", 10));
+        calls.put("customers.by-id", () -> customerController.getCustomerById(any(customerIds)));
+        calls.put("customers.by-last-name", () -> customerController.searchCustomersByLastName(any(lastNames)));
+        calls.put("customers.by-email", () -> customerController.getCustomerByEmail(any(emails)));
+        calls.put("orders.by-id", () -> orderController.getOrderById(any(orderIds)));
+        calls.put("orders.by-customer", () -> orderController.getOrdersByCustomerId(any(customerIds)));
+        calls.put("orders.by-status", () -> orderController.getOrdersByStatus(OrderStatus.PENDING));
+        calls.put("orders.needs-attention", () -> orderController.getOrdersNeedingAttention(LocalDateTime.now().minusDays(1)));
+
+        List<Scenario> scenarios = new ArrayList<>();
+        calls.forEach((name, call) -> {
+            int weight = properties.getMix().getOrDefault(name, DEFAULT_MIX.get(name));
+            if (weight > 0) {
+                scenarios.add(new Scenario(name, weight, call));
+            }
+        });
+        return scenarios;
+    }
+
+    private static <T> T any(List<T> values) {
+        if (values.isEmpty()) {
+            throw new IllegalStateException("No sample data");
+        }
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static Counter callCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("warmup.calls")
+            .description("Warm-up calls replayed by outcome")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static class Scenario {
+        private final String name;
+        private final int weight;
+        private final Supplier<Object> call;
+
+        Scenario(String name, int weight, Supplier<Object> call) {
+            this.name = name;
+            this.weight = weight;
+            this.call = call;
+        }
+    }
+}
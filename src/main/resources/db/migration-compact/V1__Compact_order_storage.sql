@@ -0,0 +1,27 @@
+-- Compact order encoding, applied only with the compact-storage profile.
+-- Money becomes BIGINT minor units (cents) and status a SMALLINT code matching Order.OrderStatus.
+-- Rewrites orders and order_items and rebuilds their indexes under an exclusive lock.
+ALTER TABLE orders
+    DROP CONSTRAINT orders_status_check,
+    DROP CONSTRAINT orders_total_amount_check;
+
+ALTER TABLE orders
+    ALTER COLUMN status TYPE SMALLINT USING CASE status
+        WHEN 'PENDING' THEN 0
+        WHEN 'PROCESSING' THEN 1
+        WHEN 'SHIPPED' THEN 2
+        WHEN 'DELIVERED' THEN 3
+        WHEN 'CANCELLED' THEN 4
+    END,
+    ALTER COLUMN total_amount TYPE BIGINT USING round(total_amount * 100)::bigint,
+    ADD CONSTRAINT orders_status_check CHECK (status BETWEEN 0 AND 4),
+    ADD CONSTRAINT orders_total_amount_check CHECK (total_amount >= 0);
+
+ALTER TABLE order_items DROP CONSTRAINT order_items_price_check;
+
+ALTER TABLE order_items
+    ALTER COLUMN price TYPE BIGINT USING round(price * 100)::bigint,
+    ADD CONSTRAINT order_items_price_check CHECK (price >= 0);
+
+ANALYZE orders;
+ANALYZE order_items;
@@ -0,0 +1,2 @@
+-- Supports incremental polling of changed orders (OpenOrderIndex watermark queries)
+CREATE INDEX idx_orders_updated_at ON orders(updated_at);
@@ -0,0 +1,9 @@
+-- Covering indexes for the product listing projections (category, low-stock, available).
+-- With every ProductDTO column in the index, Postgres can answer these with index-only scans
+-- instead of visiting the heap for each matching row.
+DROP INDEX IF EXISTS idx_products_category;
+CREATE INDEX idx_products_category ON products(category) INCLUDE (id, name, price, stock);
+
+-- No longer partial: the low-stock listing (stock < n) includes out-of-stock products
+DROP INDEX IF EXISTS idx_products_stock;
+CREATE INDEX idx_products_stock ON products(stock) INCLUDE (id, name, category, price);
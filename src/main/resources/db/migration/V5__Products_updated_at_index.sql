@@ -0,0 +1,2 @@
+-- Supports incremental polling of changed products (ProductStockIndex watermark queries)
+CREATE INDEX idx_products_updated_at ON products(updated_at);
@@ -0,0 +1,2 @@
+-- Supports incremental polling of changed customers (CustomerEmailIndex watermark queries)
+CREATE INDEX idx_customers_updated_at ON customers(updated_at);
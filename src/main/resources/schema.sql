@@ -56,16 +56,19 @@ CREATE TABLE order_items (
 -- Customers indices
 CREATE INDEX idx_customers_email ON customers(email);
 CREATE INDEX idx_customers_last_name ON customers(last_name, first_name);
+CREATE INDEX idx_customers_updated_at ON customers(updated_at);
 
 -- Products indices
-CREATE INDEX idx_products_category ON products(category);
-CREATE INDEX idx_products_stock ON products(stock) WHERE stock > 0;
+CREATE INDEX idx_products_category ON products(category) INCLUDE (id, name, price, stock);
+CREATE INDEX idx_products_stock ON products(stock) INCLUDE (id, name, category, price);
+CREATE INDEX idx_products_updated_at ON products(updated_at);
 
 -- Orders indices
 CREATE INDEX idx_orders_customer ON orders(customer_id);
 CREATE INDEX idx_orders_status ON orders(status);
 CREATE INDEX idx_orders_date ON orders(order_date);
 CREATE INDEX idx_orders_status_date ON orders(status, order_date);
+CREATE INDEX idx_orders_updated_at ON orders(updated_at);
 
 -- Order items indices
 CREATE INDEX idx_order_items_order ON order_items(order_id);
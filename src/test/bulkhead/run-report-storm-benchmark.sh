@@ -0,0 +1,204 @@
+#!/bin/bash
+
+# Report storm benchmark: point-lookup latency with and without DB bulkheads
+# Migrates a throwaway Postgres through the app, adds ORDERS settled orders so report queries are slow,
+# then starts the app jar once with bulkhead.enabled=true and once with false. Each run measures
+# GET /api/products/{id} alone, then again while STORM_THREADS clients loop on STORM_PATH (by default the
+# database side of /api/orders/stale, a report-class query). Writes bulkhead.json with p50/p99 per phase,
+# report outcomes and the point-read p99 change caused by the storm in each mode.
+#
+# Requirements: docker, curl, jq, python3, a JDK for ./mvnw
+#
+# Usage:
+#   ./src/test/bulkhead/run-report-storm-benchmark.sh
+#   ORDERS=2000000 POOL_SIZE=10 STORM_THREADS=64 ./src/test/bulkhead/run-report-storm-benchmark.sh
+
+# Exit on any error
+set -e
+
+ORDERS="${ORDERS:-200000}"
+POOL_SIZE="${POOL_SIZE:-10}"             # spring.datasource.hikari.maximum-pool-size for both runs
+POINT_THREADS="${POINT_THREADS:-8}"
+STORM_THREADS="${STORM_THREADS:-32}"
+DURATION_SECONDS="${DURATION_SECONDS:-60}"
+STORM_PATH="${STORM_PATH:-/api/orders/stale?status=DELIVERED&before=$(date -u +%Y-%m-%dT%H:%M:%S)}"
+APP_PORT="${APP_PORT:-18082}"
+DB_PORT="${DB_PORT:-15432}"
+POSTGRES_CONTAINER="sde-bulkhead-postgres"
+
+RESULTS_DIR="src/test/bulkhead/results"
+TIMESTAMP=$(date +"%Y%m%d_%H%M%S")
+TEST_DIR="$RESULTS_DIR/bulkhead_$TIMESTAMP"
+mkdir -p "$TEST_DIR"
+
+APP_PID=""
+cleanup() {
+    echo "Cleaning up..."
+    if [ -n "$APP_PID" ]; then
+        kill "$APP_PID" > /dev/null 2>&1 || true
+    fi
+    docker rm -f "$POSTGRES_CONTAINER" > /dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+psql_exec() {
+    docker exec -i "$POSTGRES_CONTAINER" psql -v ON_ERROR_STOP=1 -qAt -U postgres -d system_design_db "$@"
+}
+
+start_database() {
+    docker run -d --name "$POSTGRES_CONTAINER" -p "$DB_PORT:5432" \
+        -e POSTGRES_DB=system_design_db \
+        -e POSTGRES_USER=postgres \
+        -e POSTGRES_PASSWORD=password \
+        postgres:15 > /dev/null
+    for _ in $(seq 1 60); do
+        if docker exec "$POSTGRES_CONTAINER" pg_isready -U postgres -d system_design_db > /dev/null 2>&1; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "Error: Postgres did not become ready"
+    exit 1
+}
+
+# ORDERS delivered orders (one item each) spread over the sample customers; run after the app migrated
+load_dataset() {
+    local last_order
+    last_order=$(psql_exec -c "SELECT COALESCE(MAX(id), 0) FROM orders")
+    psql_exec <<SQL
+WITH c AS (SELECT array_agg(id) AS ids FROM customers)
+INSERT INTO orders (customer_id, order_date, status, total_amount)
+SELECT c.ids[1 + g % array_length(c.ids, 1)], now() - random() * interval '365 days', 'DELIVERED', 10
+FROM generate_series(1, $ORDERS) g, c;
+
+INSERT INTO order_items (order_id, product_id, quantity, price)
+SELECT o.id, (SELECT MIN(id) FROM products), 1, 10 FROM orders o WHERE o.id > $last_order;
+SQL
+    psql_exec -c "VACUUM ANALYZE orders" -c "VACUUM ANALYZE order_items"
+}
+
+start_app() {
+    local bulkhead=$1
+    java -jar target/system-design-experiment-*.jar \
+        --server.port="$APP_PORT" \
+        --spring.datasource.url="jdbc:postgresql://localhost:$DB_PORT/system_design_db" \
+        --spring.datasource.hikari.maximum-pool-size="$POOL_SIZE" \
+        --spring.jpa.show-sql=false \
+        --warmup.mix[orders.by-status]=0 \
+        --bulkhead.enabled="$bulkhead" \
+        > "$TEST_DIR/app_bulkhead_$bulkhead.log" 2>&1 &
+    APP_PID=$!
+    for _ in $(seq 1 600); do
+        if curl -sf -o /dev/null "http://localhost:$APP_PORT/actuator/health/readiness"; then
+            return 0
+        fi
+        sleep 0.5
+    done
+    echo "Error: app did not become ready, see $TEST_DIR/app_bulkhead_$bulkhead.log"
+    exit 1
+}
+
+stop_app() {
+    kill "$APP_PID" > /dev/null 2>&1 || true
+    wait "$APP_PID" 2> /dev/null || true
+    APP_PID=""
+}
+
+# Closed-loop clients; prints {"point": {...}, "report": {...}} with latency percentiles in ms and
+# response counts by status code. STORM=0 runs the point lookups alone.
+run_load() {
+    local storm=$1
+    local product_ids
+    product_ids=$(psql_exec -c "SELECT string_agg(id::text, ',') FROM products")
+    python3 - "$APP_PORT" "$product_ids" "$POINT_THREADS" "$storm" "$DURATION_SECONDS" "$STORM_PATH" <<'PY'
+import json, random, sys, threading, time, urllib.error, urllib.request
+
+port, ids, point_threads, storm_threads, duration, storm_path = sys.argv[1:7]
+ids = ids.split(",")
+deadline = time.time() + int(duration)
+samples = {"point": [], "report": []}
+codes = {"point": {}, "report": {}}
+lock = threading.Lock()
+
+def call(kind, path):
+    started = time.perf_counter()
+    try:
+        with urllib.request.urlopen(f"http://localhost:{port}{path}", timeout=60) as response:
+            response.read()
+            code = response.status
+    except urllib.error.HTTPError as e:
+        code = e.code
+    except Exception:
+        code = 0
+    elapsed = (time.perf_counter() - started) * 1000
+    with lock:
+        codes[kind][str(code)] = codes[kind].get(str(code), 0) + 1
+        if code == 200:
+            samples[kind].append(elapsed)
+
+def point():
+    while time.time() < deadline:
+        call("point", f"/api/products/{random.choice(ids)}")
+
+def report():
+    while time.time() < deadline:
+        call("report", storm_path)
+
+threads = [threading.Thread(target=point) for _ in range(int(point_threads))]
+threads += [threading.Thread(target=report) for _ in range(int(storm_threads))]
+for t in threads:
+    t.start()
+for t in threads:
+    t.join()
+
+def summary(values, responses):
+    values.sort()
+    pct = lambda p: round(values[min(len(values) - 1, int(p * len(values)))], 2) if values else None
+    return {"ok": len(values), "responses": responses, "p50Ms": pct(0.50), "p99Ms": pct(0.99), "maxMs": pct(1.0)}
+
+print(json.dumps({kind: summary(samples[kind], codes[kind]) for kind in samples}))
+PY
+}
+
+echo "Building the application jar..."
+./mvnw -q -DskipTests package
+
+start_database
+echo "Migrating database..."
+start_app true
+stop_app
+echo "Loading $ORDERS extra orders..."
+load_dataset
+
+for bulkhead in true false; do
+    echo "Starting app with bulkhead.enabled=$bulkhead (pool size $POOL_SIZE)..."
+    start_app "$bulkhead"
+    echo "  point lookups alone for ${DURATION_SECONDS}s..."
+    run_load 0 > "$TEST_DIR/bulkhead_${bulkhead}_quiet.json"
+    echo "  point lookups during a $STORM_THREADS-client report storm for ${DURATION_SECONDS}s..."
+    run_load "$STORM_THREADS" > "$TEST_DIR/bulkhead_${bulkhead}_storm.json"
+    curl -sf "http://localhost:$APP_PORT/actuator/metrics/db.bulkhead.rejected" > "$TEST_DIR/bulkhead_${bulkhead}_rejected.json" || echo '{}' > "$TEST_DIR/bulkhead_${bulkhead}_rejected.json"
+    stop_app
+done
+
+jq -n \
+    --slurpfile onQuiet "$TEST_DIR/bulkhead_true_quiet.json" --slurpfile onStorm "$TEST_DIR/bulkhead_true_storm.json" \
+    --slurpfile offQuiet "$TEST_DIR/bulkhead_false_quiet.json" --slurpfile offStorm "$TEST_DIR/bulkhead_false_storm.json" \
+    --argjson orders "$ORDERS" --argjson poolSize "$POOL_SIZE" \
+    --argjson pointThreads "$POINT_THREADS" --argjson stormThreads "$STORM_THREADS" --argjson durationSeconds "$DURATION_SECONDS" '
+    def pct(a; b): if a != null and b != null and a > 0 then ((b - a) / a * 100) else null end;
+    {
+        generatedAt: (now | todate),
+        setup: {extraOrders: $orders, poolSize: $poolSize, pointThreads: $pointThreads,
+                stormThreads: $stormThreads, durationSeconds: $durationSeconds},
+        bulkheadEnabled: {quiet: $onQuiet[0], storm: $onStorm[0],
+                          pointP99ChangePct: pct($onQuiet[0].point.p99Ms; $onStorm[0].point.p99Ms)},
+        bulkheadDisabled: {quiet: $offQuiet[0], storm: $offStorm[0],
+                           pointP99ChangePct: pct($offQuiet[0].point.p99Ms; $offStorm[0].point.p99Ms)}
+    }' > "$TEST_DIR/bulkhead.json"
+
+echo "Bulkhead report: $TEST_DIR/bulkhead.json"
+jq -r '
+    "  bulkheads on:  point p99 \(.bulkheadEnabled.quiet.point.p99Ms)ms -> \(.bulkheadEnabled.storm.point.p99Ms)ms during storm, report responses \(.bulkheadEnabled.storm.report.responses)",
+    "  bulkheads off: point p99 \(.bulkheadDisabled.quiet.point.p99Ms)ms -> \(.bulkheadDisabled.storm.point.p99Ms)ms during storm, report responses \(.bulkheadDisabled.storm.report.responses)"' \
+    "$TEST_DIR/bulkhead.json"
@@ -0,0 +1,59 @@
+package com.nrjsingh1.system_design_experiment.benchmark;
+
+import com.nrjsingh1.system_design_experiment.ratelimit.ClientRateLimiter;
+import com.nrjsingh1.system_design_experiment.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of the per-request limiter check with 10k / 100k distinct clients, 8 threads hitting random
+// clients concurrently. Run with:
+//   ./mvnw -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test.classpath -Dmdep.includeScope=test
+//   java -cp "target/test-classes:target/classes:$(cat target/test.classpath)" \
+//       com.nrjsingh1.system_design_experiment.benchmark.ClientRateLimiterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ClientRateLimiterBenchmark {
+
+    @Param({"10000", "100000"})
+    public int clients;
+
+    private ClientRateLimiter limiter;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxClients(clients * 2);
+        limiter = new ClientRateLimiter(properties, new SimpleMeterRegistry());
+        keys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            keys[i] = "ip:10." + (i >>> 16) + "." + ((i >>> 8) & 0xff) + "." + (i & 0xff);
+            limiter.tryAcquire(keys[i], 1);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public long tryAcquire(ThreadRandom thread) {
+        return limiter.tryAcquire(keys[thread.random.nextInt(keys.length)], 1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ClientRateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,135 @@
+package com.nrjsingh1.system_design_experiment.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.nrjsingh1.system_design_experiment.dto.OrderDTO;
+import com.nrjsingh1.system_design_experiment.dto.ProductDTO;
+import com.nrjsingh1.system_design_experiment.model.Order;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// JSON vs Smile vs CBOR for a 100-product page and 20 orders of 5 items, with mappers configured
+// the same way as BinaryFormatConfig. Run with:
+//   ./mvnw -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test.classpath -Dmdep.includeScope=test
+//   java -cp "target/test-classes:target/classes:$(cat target/test.classpath)" \
+//       com.nrjsingh1.system_design_experiment.benchmark.SerializationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private List<ProductDTO> products;
+    private List<OrderDTO> orders;
+    private byte[] productBytes;
+    private byte[] orderBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = mapperFor(format);
+        products = sampleProducts(100);
+        orders = sampleOrders(20, 5);
+        productBytes = mapper.writeValueAsBytes(products);
+        orderBytes = mapper.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public byte[] serializeProducts() throws Exception {
+        return mapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public List<ProductDTO> deserializeProducts() throws Exception {
+        return mapper.readValue(productBytes, new TypeReference<List<ProductDTO>>() { });
+    }
+
+    @Benchmark
+    public byte[] serializeOrders() throws Exception {
+        return mapper.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public List<OrderDTO> deserializeOrders() throws Exception {
+        return mapper.readValue(orderBytes, new TypeReference<List<OrderDTO>>() { });
+    }
+
+    static ObjectMapper mapperFor(String format) {
+        return switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory())
+                    .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory())
+                    .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+    }
+
+    static List<ProductDTO> sampleProducts(int count) {
+        Random random = new Random(1);
+        List<ProductDTO> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ProductDTO product = new ProductDTO();
+            product.setId((long) i + 1);
+            product.setName("Premium Electronics " + (i + 1));
+            product.setCategory("Electronics");
+            product.setPrice(BigDecimal.valueOf(1000 + random.nextInt(99_000), 2));
+            product.setStock(50 + random.nextInt(200));
+            products.add(product);
+        }
+        return products;
+    }
+
+    static List<OrderDTO> sampleOrders(int count, int itemsPerOrder) {
+        Random random = new Random(2);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 15, 12, 30, 15, 123_000_000);
+        List<OrderDTO> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            OrderDTO order = new OrderDTO();
+            order.setId((long) i + 1);
+            order.setCustomerId((long) random.nextInt(10_000) + 1);
+            order.setOrderDate(now.minusMinutes(random.nextInt(100_000)));
+            order.setStatus(Order.OrderStatus.PENDING);
+            long totalCents = 0;
+            for (int j = 0; j < itemsPerOrder; j++) {
+                long cents = 1000 + random.nextInt(99_000);
+                int quantity = 1 + random.nextInt(5);
+                totalCents += cents * quantity;
+                order.getItems().add(new OrderDTO.Item((long) random.nextInt(500) + 1, quantity, BigDecimal.valueOf(cents, 2)));
+            }
+            order.setTotalAmount(BigDecimal.valueOf(totalCents, 2));
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Payload sizes are deterministic, so print them once instead of measuring them
+        for (String format : new String[] {"json", "smile", "cbor"}) {
+            ObjectMapper mapper = mapperFor(format);
+            System.out.printf("%-6s products: %6d bytes, orders: %6d bytes%n", format,
+                    mapper.writeValueAsBytes(sampleProducts(100)).length,
+                    mapper.writeValueAsBytes(sampleOrders(20, 5)).length);
+        }
+        new Runner(new OptionsBuilder()
+                .include(SerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package com.nrjsingh1.system_design_experiment.benchmark;
+
+import com.nrjsingh1.system_design_experiment.dto.ProductDTO;
+import com.nrjsingh1.system_design_experiment.inventory.StockLevelIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// StockLevelIndex at 1M products with stock spread over 0-999: a stock change (order placement),
+// a low-stock threshold query and the first page of the availability ordering. Run with:
+//   ./mvnw -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test.classpath -Dmdep.includeScope=test
+//   java -cp "target/test-classes:target/classes:$(cat target/test.classpath)" \
+//       com.nrjsingh1.system_design_experiment.benchmark.StockLevelIndexBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class StockLevelIndexBenchmark {
+
+    static final int PRODUCTS = 1_000_000;
+    static final int MAX_STOCK = 1000;
+
+    @Param({"5", "50"})
+    public int lowStockThreshold;
+
+    private StockLevelIndex index;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        index = sampleIndex(PRODUCTS);
+        random = new SplittableRandom(2);
+    }
+
+    @Benchmark
+    public boolean updateStock() {
+        return index.updateStock(1 + random.nextInt(PRODUCTS), random.nextInt(MAX_STOCK));
+    }
+
+    @Benchmark
+    public List<ProductDTO> lowStock() {
+        return index.below(lowStockThreshold, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<ProductDTO> availableFirstPage() {
+        return index.available(100);
+    }
+
+    static StockLevelIndex sampleIndex(int count) {
+        SplittableRandom random = new SplittableRandom(1);
+        StockLevelIndex index = new StockLevelIndex(count);
+        String[] categories = {"Electronics", "Books", "Clothing", "Home", "Sports", "Toys"};
+        for (int i = 1; i <= count; i++) {
+            index.upsert(i, "Product " + i, categories[i % categories.length],
+                    1000 + random.nextInt(99_000), random.nextInt(MAX_STOCK));
+        }
+        return index;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Footprint is deterministic, so print it once instead of measuring it
+        StockLevelIndex index = sampleIndex(PRODUCTS);
+        System.out.printf("%d products, index arrays: %.1f MB%n", index.size(), index.sizeInBytes() / 1048576.0);
+        new Runner(new OptionsBuilder()
+                .include(StockLevelIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
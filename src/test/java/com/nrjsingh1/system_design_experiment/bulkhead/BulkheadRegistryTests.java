@@ -0,0 +1,39 @@
+package com.nrjsingh1.system_design_experiment.bulkhead;
+
+import com.nrjsingh1.system_design_experiment.shard.ShardingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadRegistryTests {
+
+    @Test
+    void budgetsAreSharesOfThePool() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.datasource.hikari.maximum-pool-size", "20");
+
+        BulkheadRegistry registry = new BulkheadRegistry(environment, new ShardingProperties(), new SimpleMeterRegistry());
+
+        assertThat(registry.get(DbAccessClass.POINT_READ).getPermits()).isEqualTo(8);
+        assertThat(registry.get(DbAccessClass.REPORT).getPermits()).isEqualTo(3);
+    }
+
+    @Test
+    void shardedBudgetsAreSharesOfTheSmallestShardPool() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.datasource.hikari.maximum-pool-size", "20");
+        ShardingProperties sharding = new ShardingProperties();
+        sharding.setEnabled(true);
+        ShardingProperties.Shard small = new ShardingProperties.Shard();
+        small.setMaximumPoolSize(10);
+        sharding.setShards(List.of(new ShardingProperties.Shard(), small, new ShardingProperties.Shard()));
+
+        BulkheadRegistry registry = new BulkheadRegistry(environment, sharding, new SimpleMeterRegistry());
+
+        assertThat(registry.get(DbAccessClass.POINT_READ).getPermits()).isEqualTo(4);
+        assertThat(registry.get(DbAccessClass.REPORT).getPermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,77 @@
+package com.nrjsingh1.system_design_experiment.controller;
+
+import com.nrjsingh1.system_design_experiment.config.MetricsConfig;
+import com.nrjsingh1.system_design_experiment.config.WarmupTraffic;
+import com.nrjsingh1.system_design_experiment.dto.ProductDTO;
+import com.nrjsingh1.system_design_experiment.service.ProductStockIndex;
+import com.nrjsingh1.system_design_experiment.service.ScalabilityMetricsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductControllerWarmupMetricsTests {
+
+    @Test
+    void replayedCallsLeaveBusinessAndTimedMetersUntouched() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ProductController controller = controller(registry);
+
+        WarmupTraffic.begin();
+        try {
+            controller.getAvailableProducts();
+        } finally {
+            WarmupTraffic.end();
+        }
+
+        assertThat(registry.find("products.available.accessed").counter()).isNull();
+        assertThat(registry.find("products.get.available").timer()).isNull();
+        assertThat(registry.get("product.search.time").timer().count()).isZero();
+
+        controller.getAvailableProducts();
+
+        assertThat(registry.get("products.available.accessed").counter().count()).isEqualTo(1);
+        assertThat(registry.get("products.get.available").timer().count()).isEqualTo(1);
+        assertThat(registry.get("product.search.time").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void replayedCallsAreNotCountedAsRequests() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ScalabilityMetricsService metrics = new ScalabilityMetricsService(registry);
+
+        WarmupTraffic.begin();
+        try {
+            metrics.recordRequestStart();
+            metrics.stopTimer(metrics.startTimer());
+            metrics.recordRequestEnd();
+        } finally {
+            WarmupTraffic.end();
+        }
+
+        assertThat(registry.get("system.requests.total").counter().count()).isZero();
+        assertThat(registry.get("system.response.time").timer().count()).isZero();
+        assertThat(registry.get("system.active.requests").gauge().value()).isZero();
+    }
+
+    // The controller behind the same TimedAspect the application registers
+    private static ProductController controller(MeterRegistry registry) {
+        ProductStockIndex stockIndex = mock(ProductStockIndex.class);
+        when(stockIndex.findAvailable()).thenReturn(Optional.of(List.of(new ProductDTO())));
+        ProductController target = new ProductController(registry);
+        ReflectionTestUtils.setField(target, "productStockIndex", stockIndex);
+        ReflectionTestUtils.setField(target, "scalabilityMetrics", new ScalabilityMetricsService(registry));
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new MetricsConfig().timedAspect(registry));
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,102 @@
+package com.nrjsingh1.system_design_experiment.model;
+
+import com.nrjsingh1.system_design_experiment.model.Order.OrderStatus;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.mapping.BasicValue;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.ToOne;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.sql.Types;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderStorageEncodingTests {
+
+    // Codes are persisted by the compact-storage schema and its CHECK constraint; this pins them
+    @Test
+    void statusCodesAreStable() {
+        assertThat(OrderStatus.PENDING.getCode()).isEqualTo((short) 0);
+        assertThat(OrderStatus.PROCESSING.getCode()).isEqualTo((short) 1);
+        assertThat(OrderStatus.SHIPPED.getCode()).isEqualTo((short) 2);
+        assertThat(OrderStatus.DELIVERED.getCode()).isEqualTo((short) 3);
+        assertThat(OrderStatus.CANCELLED.getCode()).isEqualTo((short) 4);
+
+        OrderStatusCodeConverter converter = new OrderStatusCodeConverter();
+        for (OrderStatus status : OrderStatus.values()) {
+            assertThat(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(status))).isEqualTo(status);
+        }
+        assertThatThrownBy(() -> OrderStatus.fromCode((short) 5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void moneyRoundTripsThroughMinorUnits() {
+        MinorUnitsConverter converter = new MinorUnitsConverter();
+        assertThat(converter.convertToEntityAttribute(new BigDecimal("12.34"))).isEqualTo(1234L);
+        assertThat(converter.convertToEntityAttribute(new BigDecimal("99999999.99"))).isEqualTo(9_999_999_999L);
+        assertThat(converter.convertToDatabaseColumn(5L)).isEqualTo(new BigDecimal("0.05"));
+        // Same rounding a DECIMAL(10,2) column applies on insert
+        assertThat(MinorUnitsConverter.toMinorUnits(new BigDecimal("1.005"))).isEqualTo(101L);
+        assertThat(MinorUnitsConverter.toMinorUnits(new BigDecimal("7"))).isEqualTo(700L);
+    }
+
+    // The API still sees two-decimal BigDecimals, whatever the columns hold
+    @Test
+    void totalIsSummedInCentsAndExposedAsDecimal() {
+        Order order = new Order();
+        order.addOrderItem(item("19.99", 3));
+        order.addOrderItem(item("0.10", 7));
+        order.calculateTotal();
+
+        assertThat(order.getTotalAmountCents()).isEqualTo(6067L);
+        assertThat(order.getTotalAmount()).isEqualTo(new BigDecimal("60.67"));
+        assertThat(order.getOrderItems().get(0).getPrice()).isEqualTo(new BigDecimal("19.99"));
+    }
+
+    // orm-compact-storage.xml overrides just these three attributes on top of the annotations
+    @Test
+    void compactMappingStoresCentsAndStatusCodes() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+            .applySetting("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect")
+            .applySetting("hibernate.boot.allow_jdbc_metadata_access", "false")
+            .build();
+        try {
+            Metadata metadata = new MetadataSources(registry)
+                .addAnnotatedClasses(Order.class, OrderItem.class, Customer.class, Product.class)
+                .addResource("META-INF/orm-compact-storage.xml")
+                .buildMetadata();
+
+            assertCompactColumn(metadata, Order.class, "status", Types.SMALLINT, true);
+            assertCompactColumn(metadata, Order.class, "totalAmount", Types.BIGINT, false);
+            assertCompactColumn(metadata, OrderItem.class, "price", Types.BIGINT, false);
+            // Everything else still comes from the annotations
+            assertThat(metadata.getEntityBinding(Order.class.getName()).getTable().getName()).isEqualTo("orders");
+            assertThat(metadata.getEntityBinding(Order.class.getName()).getProperty("customer").getValue())
+                .isInstanceOfSatisfying(ToOne.class, customer -> assertThat(customer.isLazy()).isTrue());
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+
+    private static void assertCompactColumn(Metadata metadata, Class<?> entity, String attribute, int jdbcType,
+                                            boolean converted) {
+        BasicValue value = (BasicValue) metadata.getEntityBinding(entity.getName()).getProperty(attribute).getValue();
+        BasicValue.Resolution<?> resolution = value.resolve();
+        assertThat(resolution.getJdbcType().getJdbcTypeCode()).isEqualTo(jdbcType);
+        assertThat(resolution.getValueConverter() != null).isEqualTo(converted);
+        assertThat(((Column) value.getColumns().get(0)).isNullable()).isFalse();
+    }
+
+    private static OrderItem item(String price, int quantity) {
+        Product product = new Product();
+        product.setPrice(new BigDecimal(price));
+        OrderItem item = new OrderItem();
+        item.setProductWithCurrentPrice(product);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,55 @@
+package com.nrjsingh1.system_design_experiment.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTests {
+
+    @Test
+    void burstThenSustainedRatePerClient() {
+        ClientRateLimiter limiter = limiter(10, 20, 1024);
+        long now = 0;
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire("ip:10.0.0.1", 1, now)).isZero();
+        }
+        long wait = limiter.tryAcquire("ip:10.0.0.1", 1, now);
+        assertThat(wait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        // Another client has its own bucket
+        assertThat(limiter.tryAcquire("ip:10.0.0.2", 5, now)).isZero();
+        // One token back after one emission interval
+        now += wait;
+        assertThat(limiter.tryAcquire("ip:10.0.0.1", 1, now)).isZero();
+        assertThat(limiter.tryAcquire("ip:10.0.0.1", 1, now)).isPositive();
+        // Route costs draw several tokens at once
+        now += TimeUnit.SECONDS.toNanos(1);
+        assertThat(limiter.tryAcquire("ip:10.0.0.1", 5, now)).isZero();
+        assertThat(limiter.tryAcquire("ip:10.0.0.1", 5, now)).isZero();
+        assertThat(limiter.tryAcquire("ip:10.0.0.1", 5, now)).isPositive();
+    }
+
+    @Test
+    void clientCountStaysBoundedAndIdleBucketsAreEvicted() {
+        ClientRateLimiter limiter = limiter(10, 20, 1024);
+        // Drained buckets that have refilled again by the time the sweep runs
+        long now = System.nanoTime() - TimeUnit.SECONDS.toNanos(10);
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("ip:client-" + i, 20, now);
+        }
+        assertThat(limiter.trackedClients()).isLessThanOrEqualTo(1024);
+        limiter.evictIdle();
+        assertThat(limiter.trackedClients()).isZero();
+    }
+
+    private static ClientRateLimiter limiter(double tokensPerSecond, int burst, int maxClients) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setTokensPerSecond(tokensPerSecond);
+        properties.setBurst(burst);
+        properties.setStripes(16);
+        properties.setMaxClients(maxClients);
+        properties.setIdleEvictionMs(0);
+        return new ClientRateLimiter(properties, new SimpleMeterRegistry());
+    }
+}
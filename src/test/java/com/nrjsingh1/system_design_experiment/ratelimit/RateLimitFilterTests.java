@@ -0,0 +1,47 @@
+package com.nrjsingh1.system_design_experiment.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+
+    @Test
+    void onlyConfiguredApiKeysGetTheirOwnBucket() throws Exception {
+        RateLimitFilter filter = filter(Set.of("partner"));
+
+        assertThat(status(filter, "10.0.0.1", null)).isEqualTo(200);
+        // Made-up keys are charged to the address, which has spent its single token
+        assertThat(status(filter, "10.0.0.1", "random-1")).isEqualTo(429);
+        assertThat(status(filter, "10.0.0.1", "random-2")).isEqualTo(429);
+        // A configured key has its own bucket, independent of the address
+        assertThat(status(filter, "10.0.0.1", "partner")).isEqualTo(200);
+        assertThat(status(filter, "10.0.0.2", "partner")).isEqualTo(429);
+    }
+
+    private static int status(RateLimitFilter filter, String remoteAddr, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setRemoteAddr(remoteAddr);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static RateLimitFilter filter(Set<String> apiKeys) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(true);
+        properties.setApiKeys(apiKeys);
+        properties.setTokensPerSecond(0.001);
+        properties.setBurst(1);
+        properties.setStripes(16);
+        return new RateLimitFilter(new ClientRateLimiter(properties, new SimpleMeterRegistry()), properties);
+    }
+}
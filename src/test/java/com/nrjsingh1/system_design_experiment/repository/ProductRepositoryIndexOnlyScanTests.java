@@ -0,0 +1,92 @@
+package com.nrjsingh1.system_design_experiment.repository;
+
+import com.nrjsingh1.system_design_experiment.dto.ProductDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductRepositoryIndexOnlyScanTests {
+
+    // Same shape as the SQL Hibernate generates for the ProductDTO projection queries
+    private static final String SELECT_DTO = "SELECT p.id, p.name, p.category, p.price, p.stock FROM products p ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Index-only scans skip the heap only for pages marked all-visible in the visibility map
+    @BeforeEach
+    void vacuum() {
+        jdbcTemplate.execute("VACUUM ANALYZE products");
+    }
+
+    @Test
+    void categoryListingIsIndexOnly() {
+        String category = jdbcTemplate.queryForObject("SELECT category FROM products LIMIT 1", String.class);
+        String plan = explain(SELECT_DTO + "WHERE p.category = '" + category.replace("'", "''") + "'");
+        assertThat(plan).contains("Index Only Scan using idx_products_category").contains("Heap Fetches: 0");
+    }
+
+    @Test
+    void lowStockListingIsIndexOnly() {
+        String plan = explain(SELECT_DTO + "WHERE p.stock < 50");
+        assertThat(plan).contains("Index Only Scan using idx_products_stock").contains("Heap Fetches: 0");
+    }
+
+    @Test
+    void availableListingIsIndexOnlyWithoutSort() {
+        String plan = explain(SELECT_DTO + "WHERE p.stock > 0 ORDER BY p.stock ASC");
+        assertThat(plan).contains("Index Only Scan using idx_products_stock").contains("Heap Fetches: 0")
+            .doesNotContain("Sort");
+    }
+
+    @Test
+    void projectionsMatchEntityMapping() {
+        String category = jdbcTemplate.queryForObject("SELECT category FROM products LIMIT 1", String.class);
+        assertThat(ids(productRepository.findProductDTOsByCategory(category)))
+            .isEqualTo(ids(productRepository.findByCategory(category).stream().map(ProductDTO::fromEntity).toList()));
+        assertThat(ids(productRepository.findProductDTOsByStockLessThan(50)))
+            .isEqualTo(ids(productRepository.findByStockLessThan(50).stream().map(ProductDTO::fromEntity).toList()));
+        assertThat(productRepository.findAvailableProductDTOsOrderByStockAsc())
+            .isSortedAccordingTo(Comparator.comparing(ProductDTO::getStock))
+            .allSatisfy(product -> assertThat(product.getStock()).isPositive());
+    }
+
+    // The sample catalog is small enough that a sequential scan would win on cost, so take seq and
+    // bitmap scans off the table and check that the remaining plan never touches the heap
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                statement.execute("SET enable_bitmapscan = off");
+                try (ResultSet rs = statement.executeQuery("EXPLAIN (ANALYZE, COSTS OFF) " + sql)) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                } finally {
+                    statement.execute("RESET enable_seqscan");
+                    statement.execute("RESET enable_bitmapscan");
+                }
+            }
+        });
+    }
+
+    private static List<Long> ids(List<ProductDTO> products) {
+        return products.stream().map(ProductDTO::getId).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,78 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import com.nrjsingh1.system_design_experiment.dto.OrderSummaryDTO;
+import com.nrjsingh1.system_design_experiment.model.Order.OrderStatus;
+import com.nrjsingh1.system_design_experiment.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OpenOrderIndexTests {
+
+    @Autowired
+    private OpenOrderIndex openOrderIndex;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        openOrderIndex.reseed();
+    }
+
+    @Test
+    void indexAnswersMatchDatabase() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(1);
+        assertThat(ids(openOrderIndex.findNeedingAttention(cutoff).orElseThrow()))
+            .isEqualTo(ids(orderRepository.findOrderSummariesByStatusInAndOrderDateBefore(OpenOrderIndex.OPEN_STATUSES, cutoff)));
+        for (OrderStatus status : OpenOrderIndex.OPEN_STATUSES) {
+            assertThat(ids(openOrderIndex.findStale(status, cutoff).orElseThrow()))
+                .isEqualTo(ids(orderRepository.findStaleOrderSummaries(status, cutoff)));
+        }
+        assertThat(openOrderIndex.findStale(OrderStatus.SHIPPED, cutoff)).isEmpty();
+    }
+
+    // Writes that bypass the app are only seen through the updated_at watermark poll, including
+    // orders leaving the open set and coming back into it
+    @Test
+    void pollFollowsInsertsAndStatusTransitions() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(1);
+        Long customerId = jdbcTemplate.queryForObject("SELECT id FROM customers ORDER BY id LIMIT 1", Long.class);
+        Long orderId = jdbcTemplate.queryForObject("""
+            INSERT INTO orders (customer_id, order_date, status, total_amount)
+            VALUES (?, now() - interval '2 days', 'PENDING', 0) RETURNING id
+            """, Long.class, customerId);
+        try {
+            assertThat(ids(openOrderIndex.findNeedingAttention(cutoff).orElseThrow())).doesNotContain(orderId);
+            openOrderIndex.poll();
+            assertThat(ids(openOrderIndex.findStale(OrderStatus.PENDING, cutoff).orElseThrow())).contains(orderId);
+
+            jdbcTemplate.update("UPDATE orders SET status = 'SHIPPED' WHERE id = ?", orderId);
+            openOrderIndex.poll();
+            assertThat(ids(openOrderIndex.findNeedingAttention(cutoff).orElseThrow())).doesNotContain(orderId);
+
+            jdbcTemplate.update("UPDATE orders SET status = 'PROCESSING' WHERE id = ?", orderId);
+            openOrderIndex.poll();
+            assertThat(ids(openOrderIndex.findStale(OrderStatus.PROCESSING, cutoff).orElseThrow())).contains(orderId);
+            assertThat(ids(openOrderIndex.findStale(OrderStatus.PENDING, cutoff).orElseThrow())).doesNotContain(orderId);
+        } finally {
+            jdbcTemplate.update("DELETE FROM orders WHERE id = ?", orderId);
+            openOrderIndex.reseed();
+        }
+    }
+
+    private static List<Long> ids(List<OrderSummaryDTO> orders) {
+        return orders.stream().map(OrderSummaryDTO::getId).sorted().collect(Collectors.toList());
+    }
+}
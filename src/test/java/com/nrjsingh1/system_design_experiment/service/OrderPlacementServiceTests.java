@@ -0,0 +1,208 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import com.nrjsingh1.system_design_experiment.dto.OrderDTO;
+import com.nrjsingh1.system_design_experiment.dto.OrderRequest;
+import com.nrjsingh1.system_design_experiment.model.OrderItem;
+import com.nrjsingh1.system_design_experiment.repository.OrderItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class OrderPlacementServiceTests {
+
+    @Autowired
+    private OrderPlacementService orderPlacementService;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long customerId;
+    private Long productId;
+    private int stock;
+    private BigDecimal price;
+    private Long otherProductId;
+    private int otherStock;
+    private final List<Long> placedOrderIds = new ArrayList<>();
+
+    @BeforeEach
+    void pickCustomerAndProduct() {
+        customerId = jdbcTemplate.queryForObject("SELECT id FROM customers ORDER BY id LIMIT 1", Long.class);
+        Map<String, Object> product = jdbcTemplate.queryForMap(
+            "SELECT id, stock, price FROM products WHERE stock >= 5 ORDER BY id LIMIT 1");
+        productId = (Long) product.get("id");
+        stock = (Integer) product.get("stock");
+        price = (BigDecimal) product.get("price");
+    }
+
+    @AfterEach
+    void restore() {
+        for (Long orderId : placedOrderIds) {
+            jdbcTemplate.update("DELETE FROM order_items WHERE order_id = ?", orderId);
+            jdbcTemplate.update("DELETE FROM orders WHERE id = ?", orderId);
+        }
+        jdbcTemplate.update("UPDATE products SET stock = ? WHERE id = ?", stock, productId);
+        if (otherProductId != null) {
+            jdbcTemplate.update("UPDATE products SET stock = ? WHERE id = ?", otherStock, otherProductId);
+        }
+    }
+
+    @Test
+    void placementReservesStockAndSnapshotsPrice() {
+        OrderDTO order = place(request(customerId, productId, 2));
+
+        assertThat(currentStock()).isEqualTo(stock - 2);
+        assertThat(order.getTotalAmount()).isEqualByComparingTo(price.multiply(BigDecimal.valueOf(2)));
+        // Read through the entity mapping, so the check holds for either money encoding (compact-storage)
+        assertThat(orderItemRepository.findByOrderId(order.getId())).singleElement().satisfies(item -> {
+            assertThat(item.getQuantity()).isEqualTo(2);
+            assertThat(item.getPrice()).isEqualByComparingTo(price);
+        });
+        // The snapshot must not follow later price changes
+        jdbcTemplate.update("UPDATE products SET price = price + 1 WHERE id = ?", productId);
+        try {
+            assertThat(orderItemRepository.findByOrderId(order.getId())).extracting(OrderItem::getPrice)
+                .singleElement().satisfies(snapshot -> assertThat(snapshot).isEqualByComparingTo(price));
+        } finally {
+            jdbcTemplate.update("UPDATE products SET price = ? WHERE id = ?", price, productId);
+        }
+    }
+
+    @Test
+    void unknownCustomerRollsBackReservation() {
+        Long unknownCustomer = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1000 FROM customers", Long.class);
+
+        assertThatThrownBy(() -> place(request(unknownCustomer, productId, 1)))
+            .isInstanceOf(OrderPlacementException.class)
+            .extracting("reason").isEqualTo(OrderPlacementException.Reason.CUSTOMER_NOT_FOUND);
+        assertThat(currentStock()).isEqualTo(stock);
+    }
+
+    @Test
+    void duplicateProductLinesAreMerged() {
+        OrderRequest request = request(customerId, productId, 1);
+        request.getItems().add(item(productId, 2));
+
+        OrderDTO order = place(request);
+
+        assertThat(order.getItems()).hasSize(1);
+        assertThat(jdbcTemplate.queryForList("SELECT quantity FROM order_items WHERE order_id = ?", Integer.class, order.getId()))
+            .containsExactly(3);
+        assertThat(currentStock()).isEqualTo(stock - 3);
+    }
+
+    @Test
+    void insufficientStockIsRejected() {
+        assertThatThrownBy(() -> place(request(customerId, productId, stock + 1)))
+            .isInstanceOf(OrderPlacementException.class)
+            .extracting("reason").isEqualTo(OrderPlacementException.Reason.PRODUCT_UNAVAILABLE);
+        assertThat(currentStock()).isEqualTo(stock);
+    }
+
+    @Test
+    void quantityOverflowIsAnInvalidRequest() {
+        OrderRequest request = request(customerId, productId, Integer.MAX_VALUE);
+        request.getItems().add(item(productId, Integer.MAX_VALUE));
+
+        assertThatThrownBy(() -> place(request))
+            .isInstanceOf(OrderPlacementException.class)
+            .extracting("reason").isEqualTo(OrderPlacementException.Reason.INVALID_REQUEST);
+        assertThat(currentStock()).isEqualTo(stock);
+    }
+
+    // Orders naming the same two products in opposite line order, all at once. Without a fixed row lock
+    // order some of them would fail with a deadlock; every one must go through.
+    @Test
+    void concurrentMultiItemOrdersDoNotDeadlock() throws Exception {
+        int threads = 8;
+        int ordersPerThread = 10;
+        Map<String, Object> other = jdbcTemplate.queryForMap(
+            "SELECT id, stock FROM products WHERE id <> ? ORDER BY id LIMIT 1", productId);
+        otherProductId = (Long) other.get("id");
+        otherStock = (Integer) other.get("stock");
+        int startStock = threads * ordersPerThread;
+        jdbcTemplate.update("UPDATE products SET stock = ? WHERE id IN (?, ?)", startStock, productId, otherProductId);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Long>>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                boolean reversed = t % 2 == 1;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<Long> orderIds = new ArrayList<>();
+                    for (int i = 0; i < ordersPerThread; i++) {
+                        OrderRequest request = request(customerId, reversed ? otherProductId : productId, 1);
+                        request.getItems().add(item(reversed ? productId : otherProductId, 1));
+                        orderIds.add(orderPlacementService.placeOrder(request).getId());
+                    }
+                    return orderIds;
+                }));
+            }
+            start.countDown();
+            for (Future<List<Long>> result : results) {
+                placedOrderIds.addAll(result.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(placedOrderIds).hasSize(threads * ordersPerThread);
+        assertThat(currentStock()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, otherProductId)).isZero();
+    }
+
+    // The cross-shard path: the reservation commits on its own and release() is its compensation
+    @Test
+    void releasedReservationGivesStockBack() {
+        OrderPlacementService.Reservation reservation = orderPlacementService.reserve(request(customerId, productId, 4));
+        assertThat(currentStock()).isEqualTo(stock - 4);
+
+        orderPlacementService.release(reservation);
+
+        assertThat(currentStock()).isEqualTo(stock);
+    }
+
+    private OrderDTO place(OrderRequest request) {
+        OrderDTO order = orderPlacementService.placeOrder(request);
+        placedOrderIds.add(order.getId());
+        return order;
+    }
+
+    private int currentStock() {
+        return jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, productId);
+    }
+
+    private static OrderRequest request(Long customerId, Long productId, int quantity) {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerId(customerId);
+        request.getItems().add(item(productId, quantity));
+        return request;
+    }
+
+    private static OrderRequest.Item item(Long productId, int quantity) {
+        OrderRequest.Item item = new OrderRequest.Item();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,93 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import com.nrjsingh1.system_design_experiment.dto.ProductDTO;
+import com.nrjsingh1.system_design_experiment.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductStockIndexTests {
+
+    @Autowired
+    private ProductStockIndex productStockIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        productStockIndex.reseed();
+    }
+
+    @Test
+    void indexAnswersMatchDatabase() {
+        assertThat(productStockIndex.checkConsistency()).isZero();
+        for (int threshold : new int[] {0, 10, 50, 100}) {
+            assertThat(ids(productStockIndex.findLowStock(threshold).orElseThrow()))
+                .isEqualTo(ids(productRepository.findProductDTOsByStockLessThan(threshold)));
+        }
+        List<ProductDTO> available = productStockIndex.findAvailable().orElseThrow();
+        assertThat(ids(available)).isEqualTo(ids(productRepository.findAvailableProductDTOsOrderByStockAsc()));
+        assertThat(available)
+            .isSortedAccordingTo(Comparator.comparing(ProductDTO::getStock).thenComparing(ProductDTO::getId));
+    }
+
+    // A write that bypasses the app is picked up by the watermark poll; drift the poll cannot see
+    // (a deletion) is found and repaired by the consistency check
+    @Test
+    void pollAndConsistencyCheckRepairIndex() {
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM products ORDER BY id LIMIT 1", Long.class);
+        Integer stock = jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, id);
+        try {
+            jdbcTemplate.update("UPDATE products SET stock = 0 WHERE id = ?", id);
+            productStockIndex.poll();
+            assertThat(ids(productStockIndex.findLowStock(1).orElseThrow())).contains(id);
+
+            jdbcTemplate.update("INSERT INTO products (name, category, price, stock) VALUES ('Consistency probe', 'Test', 1.00, 3)");
+            Long probeId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE name = 'Consistency probe'", Long.class);
+            productStockIndex.poll();
+            jdbcTemplate.update("DELETE FROM products WHERE id = ?", probeId);
+            assertThat(productStockIndex.checkConsistency()).isEqualTo(1);
+            assertThat(ids(productStockIndex.findLowStock(4).orElseThrow())).doesNotContain(probeId);
+        } finally {
+            jdbcTemplate.update("UPDATE products SET stock = ? WHERE id = ?", stock, id);
+            productStockIndex.reseed();
+        }
+    }
+
+    // Events from two placements on the same product can commit in one order and arrive in the other
+    @Test
+    void lateOrderEventDoesNotRaiseStock() {
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM products WHERE stock >= 5 ORDER BY id LIMIT 1", Long.class);
+        Integer stock = jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, id);
+
+        productStockIndex.onOrderPlaced(placed(id, stock - 3));
+        productStockIndex.onOrderPlaced(placed(id, stock - 1));
+
+        assertThat(productStockIndex.findAvailable().orElseThrow())
+            .filteredOn(product -> product.getId().equals(id))
+            .singleElement().extracting(ProductDTO::getStock).isEqualTo(stock - 3);
+    }
+
+    private static OrderPlacedEvent placed(Long productId, int remainingStock) {
+        return new OrderPlacedEvent(1L, 1L, LocalDateTime.now(), BigDecimal.ONE,
+            new Long[] {productId}, new Integer[] {1}, new int[] {remainingStock});
+    }
+
+    private static List<Long> ids(List<ProductDTO> products) {
+        return products.stream().map(ProductDTO::getId).sorted().collect(Collectors.toList());
+    }
+}
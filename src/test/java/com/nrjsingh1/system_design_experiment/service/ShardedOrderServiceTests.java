@@ -0,0 +1,126 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import com.nrjsingh1.system_design_experiment.dto.OrderDTO;
+import com.nrjsingh1.system_design_experiment.dto.OrderRequest;
+import com.nrjsingh1.system_design_experiment.model.Customer;
+import com.nrjsingh1.system_design_experiment.model.Order;
+import com.nrjsingh1.system_design_experiment.shard.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Needs the three databases from docker-compose.sharded.yml:
+//   docker compose -f docker-compose.sharded.yml up -d
+//   SHARDED_TESTS=true ./mvnw test -Dtest=ShardedOrderServiceTests
+@SpringBootTest(properties = "warmup.enabled=false")
+@ActiveProfiles("sharded")
+@EnabledIfEnvironmentVariable(named = "SHARDED_TESTS", matches = "true")
+class ShardedOrderServiceTests {
+
+    @Autowired
+    private ShardedOrderService shardedOrderService;
+
+    @Autowired
+    private ShardedCustomerService shardedCustomerService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long customerId;
+    private int customerShard;
+    private String email;
+    private Long productId;
+    private int stock;
+    private final List<Long> placedOrderIds = new ArrayList<>();
+
+    // A customer whose slot belongs to a shard other than the product shard, written straight to that shard
+    @BeforeEach
+    void createCustomerOnAnotherShard() {
+        long maxId = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            maxId = Math.max(maxId, onShard(shard, () -> jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM customers", Long.class)));
+        }
+        customerId = maxId + 1000;
+        while (shardRouter.shardForCustomer(customerId) == 0) {
+            customerId++;
+        }
+        customerShard = shardRouter.shardForCustomer(customerId);
+        email = "shard-test-" + customerId + "@example.com";
+        onShard(customerShard, () -> jdbcTemplate.update(
+            "INSERT INTO customers (id, first_name, last_name, email, address) VALUES (?, 'Shard', ?, ?, '1 Test Street')",
+            customerId, "Sharded" + customerId, email));
+
+        Map<String, Object> product = onShard(0, () -> jdbcTemplate.queryForMap(
+            "SELECT id, stock FROM products WHERE stock >= 5 ORDER BY id LIMIT 1"));
+        productId = (Long) product.get("id");
+        stock = (Integer) product.get("stock");
+    }
+
+    @AfterEach
+    void restore() {
+        onShard(customerShard, () -> {
+            for (Long orderId : placedOrderIds) {
+                jdbcTemplate.update("DELETE FROM order_items WHERE order_id = ?", orderId);
+                jdbcTemplate.update("DELETE FROM orders WHERE id = ?", orderId);
+            }
+            return jdbcTemplate.update("DELETE FROM customers WHERE id = ?", customerId);
+        });
+        onShard(0, () -> jdbcTemplate.update("UPDATE products SET stock = ? WHERE id = ?", stock, productId));
+    }
+
+    @Test
+    void orderForCustomerOnAnotherShardIsWrittenToThatShard() {
+        OrderRequest.Item item = new OrderRequest.Item();
+        item.setProductId(productId);
+        item.setQuantity(2);
+        OrderRequest request = new OrderRequest();
+        request.setCustomerId(customerId);
+        request.setItems(List.of(item));
+
+        OrderDTO placed = shardedOrderService.placeOrder(request);
+        placedOrderIds.add(placed.getId());
+
+        assertThat(shardRouter.shardForOrder(placed.getId())).hasValue(customerShard);
+        assertThat(onShard(customerShard, () -> countOrders(placed.getId()))).isEqualTo(1);
+        assertThat(onShard(0, () -> countOrders(placed.getId()))).isZero();
+        // Stock is reserved on the product shard only
+        assertThat(onShard(0, () -> jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, productId)))
+            .isEqualTo(stock - 2);
+
+        Order readBack = shardedOrderService.findById(placed.getId()).orElseThrow();
+        assertThat(readBack.getCustomer().getId()).isEqualTo(customerId);
+        assertThat(readBack.getOrderItems()).singleElement().satisfies(line -> assertThat(line.getQuantity()).isEqualTo(2));
+        assertThat(shardedOrderService.findByCustomerId(customerId)).extracting(Order::getId).containsExactly(placed.getId());
+    }
+
+    @Test
+    void customerOnAnotherShardIsFoundByIdEmailAndLastName() {
+        assertThat(shardedCustomerService.findById(customerId)).map(Customer::getEmail).hasValue(email);
+        assertThat(shardedCustomerService.findByEmail(email)).map(Customer::getId).hasValue(customerId);
+        assertThat(shardedCustomerService.existsByEmail(email)).isTrue();
+        assertThat(shardedCustomerService.findByLastName("Sharded" + customerId))
+            .extracting(Customer::getId).containsExactly(customerId);
+    }
+
+    private int countOrders(long orderId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE id = ?", Integer.class, orderId);
+    }
+
+    private <T> T onShard(int shard, Supplier<T> action) {
+        return shardRouter.routeTo(shard, action);
+    }
+}
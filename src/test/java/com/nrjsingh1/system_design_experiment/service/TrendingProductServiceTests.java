@@ -0,0 +1,104 @@
+package com.nrjsingh1.system_design_experiment.service;
+
+import com.nrjsingh1.system_design_experiment.repository.OrderItemRepository;
+import com.nrjsingh1.system_design_experiment.shard.ShardExecutor;
+import com.nrjsingh1.system_design_experiment.sketch.HeavyHitter;
+import com.nrjsingh1.system_design_experiment.sketch.SlidingWindowHeavyHitters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TrendingProductServiceTests {
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ShardExecutor shardExecutor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Recent sales with a known ranking dominate the 24h window, so the sketch seeded from order_items
+    // must return exactly those products, in order, within its error bound of the GROUP BY counts
+    @Test
+    void topProductsMatchSqlTopSellers() {
+        List<Long> productIds = jdbcTemplate.queryForList("SELECT id FROM products ORDER BY id LIMIT 10", Long.class);
+        Long customerId = jdbcTemplate.queryForObject("SELECT id FROM customers ORDER BY id LIMIT 1", Long.class);
+        Long orderId = jdbcTemplate.queryForObject("""
+            INSERT INTO orders (customer_id, order_date, status, total_amount)
+            VALUES (?, now() - interval '1 hour', 'DELIVERED', 0) RETURNING id
+            """, Long.class, customerId);
+        try {
+            for (int i = 0; i < productIds.size(); i++) {
+                jdbcTemplate.update("INSERT INTO order_items (order_id, product_id, quantity, price) VALUES (?, ?, ?, 1.00)",
+                    orderId, productIds.get(i), 20_000 - i * 1_000);
+            }
+            TrendingProductService seeded = new TrendingProductService(orderItemRepository, shardExecutor,
+                new SimpleMeterRegistry(), 4, 4096, 256);
+            seeded.seedFromDatabase();
+
+            LocalDateTime start = seeded.windowStart(TrendingProductService.Window.ONE_DAY);
+            Map<Long, Long> exact = new HashMap<>();
+            long total = 0;
+            for (Object[] row : orderItemRepository.findTopSellingProducts(start, LocalDateTime.now())) {
+                long quantity = ((Number) row[2]).longValue();
+                exact.put((Long) row[0], quantity);
+                total += quantity;
+            }
+            long tolerance = (long) Math.ceil(total * Math.E / 4096);
+
+            List<HeavyHitter> trending = seeded.topProducts(TrendingProductService.Window.ONE_DAY, 10);
+
+            assertThat(trending).extracting(HeavyHitter::getKey).containsExactlyElementsOf(productIds);
+            for (HeavyHitter hitter : trending) {
+                long actual = exact.get(hitter.getKey());
+                assertThat(hitter.getEstimate()).isBetween(actual, actual + tolerance);
+            }
+        } finally {
+            jdbcTemplate.update("DELETE FROM order_items WHERE order_id = ?", orderId);
+            jdbcTemplate.update("DELETE FROM orders WHERE id = ?", orderId);
+        }
+    }
+
+    // Skewed synthetic stream with a long tail: the sketch must find the true top-10 within its error bound
+    @Test
+    void slidingWindowFindsHeavyHittersInSkewedStream() {
+        SlidingWindowHeavyHitters window = new SlidingWindowHeavyHitters(3_600_000L, 12, 4, 4096, 256);
+        Random random = new Random(42);
+        Map<Long, Long> exact = new HashMap<>();
+        long start = 1_000_000_000L;
+        int events = 200_000;
+        for (int i = 0; i < events; i++) {
+            long key = (long) (Math.pow(random.nextDouble(), 3) * 100_000);
+            window.add(key, 1, start + i * 10L);
+            exact.merge(key, 1L, Long::sum);
+        }
+        long now = start + events * 10L;
+        long tolerance = (long) Math.ceil(events * Math.E / 4096);
+
+        List<Long> exactTop = exact.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(10)
+                .map(Map.Entry::getValue)
+                .toList();
+        List<HeavyHitter> top = window.topK(10, now);
+
+        assertThat(top).hasSize(10);
+        for (int i = 0; i < top.size(); i++) {
+            long actual = exact.getOrDefault(top.get(i).getKey(), 0L);
+            assertThat(top.get(i).getEstimate()).isBetween(actual, actual + tolerance);
+            assertThat(actual + tolerance).isGreaterThanOrEqualTo(exactTop.get(i));
+        }
+    }
+}
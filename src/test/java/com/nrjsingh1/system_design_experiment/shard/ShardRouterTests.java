@@ -0,0 +1,60 @@
+package com.nrjsingh1.system_design_experiment.shard;
+
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardRouterTests {
+
+    @Test
+    void customersSpreadEvenlyAndOrderIdsRouteToTheirCustomersShard() {
+        ShardRouter router = new ShardRouter(properties(3, null, null, null));
+        int[] perShard = new int[3];
+        for (long customerId = 1; customerId <= 30_000; customerId++) {
+            perShard[router.shardForCustomer(customerId)]++;
+            long orderId = (customerId << ShardRouter.SLOT_BITS) | router.orderIdTag(customerId);
+            assertThat(router.shardForOrder(orderId)).isEqualTo(OptionalInt.of(router.shardForCustomer(customerId)));
+        }
+        assertThat(Arrays.stream(perShard).boxed().toList()).allSatisfy(count -> assertThat(count).isBetween(9_000, 11_000));
+        assertThat(router.shardForOrder(42L)).isEmpty();
+    }
+
+    @Test
+    void explicitSlotRangesMustCoverEverySlotOnce() {
+        ShardRouter router = new ShardRouter(properties(2, "0-99,200-1023", "100-199", null));
+        assertThat(IntStream.range(0, 100_000).filter(id -> router.shardForCustomer(id) == 1).count())
+            .isBetween(8_000L, 11_500L);
+        assertThatThrownBy(() -> new ShardRouter(properties(2, "0-511", "500-1023", null)))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new ShardRouter(properties(2, "0-511", "513-1023", null)))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void mergeSortedPagesAcrossShards() {
+        List<List<Integer>> shards = List.of(List.of(9, 6, 3), List.of(8, 5, 2), List.of(7, 4, 1), List.of());
+        Comparator<Integer> descending = Comparator.reverseOrder();
+        assertThat(ShardExecutor.mergeSorted(shards, descending, 0, Integer.MAX_VALUE)).containsExactly(9, 8, 7, 6, 5, 4, 3, 2, 1);
+        assertThat(ShardExecutor.mergeSorted(shards, descending, 3, 3)).containsExactly(6, 5, 4);
+        assertThat(ShardExecutor.mergeSorted(shards, descending, 8, 3)).containsExactly(1);
+    }
+
+    private static ShardingProperties properties(int shards, String slots0, String slots1, String slots2) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        String[] slots = {slots0, slots1, slots2};
+        for (int i = 0; i < shards; i++) {
+            ShardingProperties.Shard shard = new ShardingProperties.Shard();
+            shard.setUrl("jdbc:postgresql://localhost:" + (5433 + i) + "/system_design_db");
+            shard.setSlots(slots[i]);
+            properties.getShards().add(shard);
+        }
+        return properties;
+    }
+}
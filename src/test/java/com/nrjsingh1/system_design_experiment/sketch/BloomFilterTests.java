@@ -0,0 +1,56 @@
+package com.nrjsingh1.system_design_experiment.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BloomFilterTests {
+
+    private static final int KEYS = 100_000;
+    private static final double TARGET_FPP = 0.01;
+
+    @Test
+    void everyInsertedKeyIsReported() {
+        BloomFilter filter = BloomFilter.create(KEYS, TARGET_FPP);
+        for (int i = 0; i < KEYS; i++) {
+            filter.put("customer" + i + "@example.com");
+        }
+        for (int i = 0; i < KEYS; i++) {
+            assertThat(filter.mightContain("customer" + i + "@example.com")).isTrue();
+        }
+        assertThat((double) filter.approximateElementCount()).isCloseTo(KEYS, within(KEYS * 0.05));
+    }
+
+    // At the sized load the measured rate stays under the target (the bit count is rounded up) and
+    // close to what the fill ratio predicts
+    @Test
+    void measuredFalsePositiveRateMatchesTarget() {
+        BloomFilter filter = BloomFilter.create(KEYS, TARGET_FPP);
+        for (int i = 0; i < KEYS; i++) {
+            filter.put("customer" + i + "@example.com");
+        }
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("unknown" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+        double measured = (double) falsePositives / probes;
+        assertThat(measured).isLessThanOrEqualTo(TARGET_FPP * 1.2);
+        assertThat(measured).isCloseTo(filter.expectedFpp(), within(filter.expectedFpp() * 0.5));
+    }
+
+    @Test
+    void overfilledFilterDegradesButKeepsEveryKey() {
+        BloomFilter filter = BloomFilter.create(KEYS / 10, TARGET_FPP);
+        for (int i = 0; i < KEYS; i++) {
+            filter.put("customer" + i + "@example.com");
+        }
+        for (int i = 0; i < KEYS; i++) {
+            assertThat(filter.mightContain("customer" + i + "@example.com")).isTrue();
+        }
+        assertThat(filter.expectedFpp()).isGreaterThan(TARGET_FPP);
+    }
+}
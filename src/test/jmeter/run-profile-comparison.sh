@@ -0,0 +1,360 @@
+#!/bin/bash
+
+# Profile comparison harness
+# Starts the application once per tuning profile against a throwaway local Postgres,
+# drives load-test-plan.jmx through the same step loads and writes a machine-readable
+# comparison report (comparison.json) with regression checks against a reference profile.
+#
+# Requirements: docker, jmeter, jq, curl, a built jar (./mvnw clean package -DskipTests)
+#
+# Usage:
+#   ./src/test/jmeter/run-profile-comparison.sh                        # all profiles
+#   PROFILES="baseline minimal" STEP_DURATION=60 ./src/test/jmeter/run-profile-comparison.sh
+
+# Exit on any error
+set -e
+
+# Harness configuration (override via environment)
+PROFILES=(${PROFILES:-baseline balanced aggressive memory-optimized minimal copilot})
+REFERENCE_PROFILE="${REFERENCE_PROFILE:-baseline}"
+USERS=(${USERS:-10 25 50 100 200 500})
+STEP_DURATION="${STEP_DURATION:-300}"   # Duration for each step in seconds
+RAMP_UP="${RAMP_UP:-30}"                # Ramp-up time for each step in seconds
+COOL_DOWN="${COOL_DOWN:-30}"            # Pause between steps in seconds
+SAMPLE_INTERVAL="${SAMPLE_INTERVAL:-5}" # CPU/heap sampling interval in seconds
+APP_PORT="${APP_PORT:-18080}"
+DB_PORT="${DB_PORT:-55432}"
+APP_JAR="${APP_JAR:-$(ls target/system-design-experiment-*.jar 2>/dev/null | grep -v plain | head -1)}"
+POSTGRES_IMAGE="${POSTGRES_IMAGE:-postgres:15}"
+POSTGRES_CONTAINER="sde-bench-postgres"
+
+# Regression thresholds relative to the reference profile, in percent
+MAX_THROUGHPUT_DROP_PCT="${MAX_THROUGHPUT_DROP_PCT:-10}"
+MAX_P99_INCREASE_PCT="${MAX_P99_INCREASE_PCT:-20}"
+MAX_HEAP_INCREASE_PCT="${MAX_HEAP_INCREASE_PCT:-25}"
+MAX_ERROR_RATE_PCT="${MAX_ERROR_RATE_PCT:-1}"
+FAIL_ON_REGRESSION="${FAIL_ON_REGRESSION:-false}"
+
+# Meters every profile needs for the report, and no rate limiting of the single JMeter client; applied identically to all profiles
+HARNESS_ARGS=(
+    "--server.port=$APP_PORT"
+    "--management.endpoints.web.exposure.include=health,metrics"
+    "--management.metrics.enable.jvm=true"
+    "--management.metrics.enable.process=true"
+    "--management.metrics.enable.hikaricp=true"
+    "--rate-limit.enabled=false"
+)
+
+RESULTS_DIR="src/test/jmeter/profile-results"
+TIMESTAMP=$(date +"%Y%m%d_%H%M%S")
+TEST_DIR="$RESULTS_DIR/comparison_$TIMESTAMP"
+mkdir -p "$TEST_DIR"
+
+APP_PID=""
+SAMPLER_PID=""
+BASE_URL="http://localhost:$APP_PORT"
+
+# Function to stop the application, sampler and database on exit
+cleanup() {
+    echo "Cleaning up..."
+    [ -n "$SAMPLER_PID" ] && kill "$SAMPLER_PID" 2>/dev/null || true
+    [ -n "$APP_PID" ] && kill "$APP_PID" 2>/dev/null && wait "$APP_PID" 2>/dev/null || true
+    docker rm -f "$POSTGRES_CONTAINER" > /dev/null 2>&1 || true
+    pkill -f "load-test-plan.jmx" || true
+}
+trap cleanup EXIT
+
+check_requirements() {
+    for cmd in docker jmeter jq curl java; do
+        if ! command -v "$cmd" > /dev/null; then
+            echo "Error: '$cmd' is required but not installed"
+            exit 1
+        fi
+    done
+    if [ -z "$APP_JAR" ] || [ ! -f "$APP_JAR" ]; then
+        echo "Error: application jar not found, run ./mvnw clean package -DskipTests first"
+        exit 1
+    fi
+}
+
+# Fresh database per profile so every run starts from the same Flyway sample data
+start_database() {
+    docker rm -f "$POSTGRES_CONTAINER" > /dev/null 2>&1 || true
+    docker run -d --name "$POSTGRES_CONTAINER" \
+        -e POSTGRES_DB=system_design_db \
+        -e POSTGRES_USER=postgres \
+        -e POSTGRES_PASSWORD=password \
+        -p "$DB_PORT:5432" \
+        "$POSTGRES_IMAGE" > /dev/null
+    for _ in $(seq 1 60); do
+        if docker exec "$POSTGRES_CONTAINER" pg_isready -U postgres -d system_design_db > /dev/null 2>&1; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "Error: Postgres did not become ready"
+    exit 1
+}
+
+start_application() {
+    local profile=$1
+    DB_HOST=localhost DB_PORT="$DB_PORT" DB_NAME=system_design_db DB_USERNAME=postgres DB_PASSWORD=password \
+        java $JAVA_OPTS -jar "$APP_JAR" --spring.profiles.active="$profile" "${HARNESS_ARGS[@]}" \
+        > "$TEST_DIR/$profile/app.log" 2>&1 &
+    APP_PID=$!
+    # Health stays DOWN until the warm-up settles (at most warmup.max-duration-ms after startup)
+    for _ in $(seq 1 300); do
+        if curl -sf "$BASE_URL/actuator/health" > /dev/null; then
+            return 0
+        fi
+        if ! kill -0 "$APP_PID" 2>/dev/null; then
+            echo "Error: application exited during startup, see $TEST_DIR/$profile/app.log"
+            exit 1
+        fi
+        sleep 1
+    done
+    echo "Error: application did not become healthy"
+    exit 1
+}
+
+stop_application() {
+    kill "$APP_PID" 2>/dev/null || true
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=""
+}
+
+# Read a single statistic of an actuator meter, e.g. metric jvm.gc.pause TOTAL_TIME
+metric() {
+    local name=$1 statistic=$2 tag=$3
+    local url="$BASE_URL/actuator/metrics/$name"
+    [ -n "$tag" ] && url="$url?tag=$tag"
+    curl -s "$url" | jq -r --arg s "$statistic" \
+        '[.measurements[]? | select(.statistic==$s) | .value][0] // 0'
+}
+
+# Background sampler: process CPU and heap used, one JSON line per sample
+start_sampler() {
+    local out=$1
+    (
+        while true; do
+            cpu=$(metric process.cpu.usage VALUE)
+            heap=$(metric jvm.memory.used VALUE area:heap)
+            pending=$(metric hikaricp.connections.pending VALUE)
+            echo "{\"cpu\":$cpu,\"heap\":$heap,\"pending\":$pending}" >> "$out"
+            sleep "$SAMPLE_INTERVAL"
+        done
+    ) &
+    SAMPLER_PID=$!
+}
+
+# Difference of two actuator readings (printed as a JSON number)
+delta() {
+    awk -v before="$1" -v after="$2" 'BEGIN { printf "%.6f", after - before }'
+}
+
+stop_sampler() {
+    kill "$SAMPLER_PID" 2>/dev/null || true
+    wait "$SAMPLER_PID" 2>/dev/null || true
+    SAMPLER_PID=""
+}
+
+# Throughput, error rate and latency percentiles from a JMeter CSV result file
+jtl_stats() {
+    local jtl=$1
+    awk -F, '
+        NR == 1 {
+            for (i = 1; i <= NF; i++) col[$i] = i
+            next
+        }
+        {
+            ts = $col["timeStamp"]; el = $col["elapsed"]
+            if (first == 0 || ts < first) first = ts
+            if (ts + el > last) last = ts + el
+            if ($col["success"] != "true") errors++
+            print el
+            n++
+        }
+        END {
+            seconds = (last - first) / 1000
+            printf "%d %.3f %.4f\n", n, (seconds > 0 ? n / seconds : 0), (n > 0 ? errors * 100 / n : 0) > "/dev/stderr"
+        }' "$jtl" 2> "$jtl.summary" | sort -n > "$jtl.sorted"
+
+    read -r count throughput error_rate < "$jtl.summary"
+    pct() {
+        local p=$1
+        [ "$count" -eq 0 ] && { echo 0; return; }
+        local idx=$(( (count * p + 99) / 100 ))
+        [ "$idx" -lt 1 ] && idx=1
+        sed -n "${idx}p" "$jtl.sorted"
+    }
+    jq -n \
+        --argjson count "$count" --argjson throughput "$throughput" --argjson errorRate "$error_rate" \
+        --argjson p50 "$(pct 50)" --argjson p95 "$(pct 95)" --argjson p99 "$(pct 99)" \
+        '{samples: $count, throughputPerSec: $throughput, errorRatePct: $errorRate,
+          latencyMs: {p50: $p50, p95: $p95, p99: $p99}}'
+    rm -f "$jtl.sorted" "$jtl.summary"
+}
+
+run_step() {
+    local profile=$1 users=$2
+    local step_dir="$TEST_DIR/$profile/step_${users}users"
+    mkdir -p "$step_dir"
+
+    local gc_time_before gc_count_before acquire_time_before acquire_count_before
+    gc_time_before=$(metric jvm.gc.pause TOTAL_TIME)
+    gc_count_before=$(metric jvm.gc.pause COUNT)
+    acquire_time_before=$(metric hikaricp.connections.acquire TOTAL_TIME)
+    acquire_count_before=$(metric hikaricp.connections.acquire COUNT)
+
+    start_sampler "$step_dir/samples.jsonl"
+    if ! jmeter -n \
+        -t src/test/jmeter/load-test-plan.jmx \
+        -Jusers="$users" -Jduration="$STEP_DURATION" -Jrampup="$RAMP_UP" \
+        -Jhost=localhost -Jport="$APP_PORT" \
+        -l "$step_dir/results.jtl" \
+        -j "$step_dir/jmeter.log" > /dev/null; then
+        echo "Warning: JMeter step failed for $profile at $users users"
+    fi
+    stop_sampler
+
+    local gc_time gc_count gc_max acquire_time acquire_count
+    gc_time=$(metric jvm.gc.pause TOTAL_TIME)
+    gc_count=$(metric jvm.gc.pause COUNT)
+    gc_max=$(metric jvm.gc.pause MAX)
+    acquire_time=$(metric hikaricp.connections.acquire TOTAL_TIME)
+    acquire_count=$(metric hikaricp.connections.acquire COUNT)
+
+    local latency
+    latency=$(jtl_stats "$step_dir/results.jtl")
+
+    jq -n \
+        --argjson users "$users" \
+        --argjson latency "$latency" \
+        --slurpfile samples "$step_dir/samples.jsonl" \
+        --argjson gcTime "$(delta "$gc_time_before" "$gc_time")" \
+        --argjson gcCount "$(delta "$gc_count_before" "$gc_count")" \
+        --argjson gcMax "$gc_max" \
+        --argjson acquireTime "$(delta "$acquire_time_before" "$acquire_time")" \
+        --argjson acquireCount "$(delta "$acquire_count_before" "$acquire_count")" \
+        '{
+            users: $users
+        } + $latency + {
+            heapUsedMb: {
+                avg: (if ($samples | length) > 0 then ([$samples[].heap] | add / length / 1048576) else 0 end),
+                max: (([$samples[].heap] | max // 0) / 1048576)
+            },
+            cpuPct: {
+                avg: (if ($samples | length) > 0 then ([$samples[].cpu] | add / length * 100) else 0 end),
+                max: (([$samples[].cpu] | max // 0) * 100)
+            },
+            gcPause: {
+                count: $gcCount,
+                totalMs: ($gcTime * 1000),
+                maxMs: ($gcMax * 1000)
+            },
+            hikariWait: {
+                avgAcquireMs: (if $acquireCount > 0 then ($acquireTime / $acquireCount * 1000) else 0 end),
+                maxPending: ([$samples[].pending] | max // 0)
+            }
+        }' > "$step_dir/step.json"
+
+    echo "  $users users: $(jq -c '{throughputPerSec, latencyMs, errorRatePct}' "$step_dir/step.json")"
+}
+
+run_profile() {
+    local profile=$1
+    echo "=== Profile: $profile ==="
+    mkdir -p "$TEST_DIR/$profile"
+    start_database
+    start_application "$profile"
+
+    for users in "${USERS[@]}"; do
+        run_step "$profile" "$users"
+        sleep "$COOL_DOWN"
+    done
+
+    stop_application
+    jq -s --arg profile "$profile" '{profile: $profile, steps: sort_by(.users)}' \
+        "$TEST_DIR/$profile"/step_*users/step.json > "$TEST_DIR/$profile/profile.json"
+}
+
+# Combine per-profile results and flag regressions against the reference profile
+write_report() {
+    jq -s \
+        --arg reference "$REFERENCE_PROFILE" \
+        --argjson maxThroughputDrop "$MAX_THROUGHPUT_DROP_PCT" \
+        --argjson maxP99Increase "$MAX_P99_INCREASE_PCT" \
+        --argjson maxHeapIncrease "$MAX_HEAP_INCREASE_PCT" \
+        --argjson maxErrorRate "$MAX_ERROR_RATE_PCT" \
+        --arg stepDuration "$STEP_DURATION" \
+        '
+        def pct_change(a; b): if a == 0 then 0 else ((b - a) / a * 100) end;
+        (map({key: .profile, value: .steps}) | from_entries) as $profiles
+        | ($profiles[$reference] // []) as $ref
+        | {
+            generatedAt: (now | todate),
+            referenceProfile: $reference,
+            stepDurationSec: ($stepDuration | tonumber),
+            thresholds: {
+                maxThroughputDropPct: $maxThroughputDrop,
+                maxP99IncreasePct: $maxP99Increase,
+                maxHeapIncreasePct: $maxHeapIncrease,
+                maxErrorRatePct: $maxErrorRate
+            },
+            profiles: $profiles,
+            regressions: [
+                $profiles | to_entries[] | .key as $profile | .value[] as $step
+                | ($ref | map(select(.users == $step.users)) | first) as $base
+                | (
+                    (if $step.errorRatePct > $maxErrorRate then
+                        {profile: $profile, users: $step.users, metric: "errorRatePct",
+                         value: $step.errorRatePct, limit: $maxErrorRate} else empty end),
+                    (if $base != null and $profile != $reference then
+                        (pct_change($base.throughputPerSec; $step.throughputPerSec)) as $d
+                        | if $d < -$maxThroughputDrop then
+                            {profile: $profile, users: $step.users, metric: "throughputPerSec",
+                             reference: $base.throughputPerSec, value: $step.throughputPerSec, changePct: $d}
+                          else empty end
+                     else empty end),
+                    (if $base != null and $profile != $reference then
+                        (pct_change($base.latencyMs.p99; $step.latencyMs.p99)) as $d
+                        | if $d > $maxP99Increase then
+                            {profile: $profile, users: $step.users, metric: "latencyMs.p99",
+                             reference: $base.latencyMs.p99, value: $step.latencyMs.p99, changePct: $d}
+                          else empty end
+                     else empty end),
+                    (if $base != null and $profile != $reference then
+                        (pct_change($base.heapUsedMb.max; $step.heapUsedMb.max)) as $d
+                        | if $d > $maxHeapIncrease then
+                            {profile: $profile, users: $step.users, metric: "heapUsedMb.max",
+                             reference: $base.heapUsedMb.max, value: $step.heapUsedMb.max, changePct: $d}
+                          else empty end
+                     else empty end)
+                  )
+            ]
+          }
+        ' "$TEST_DIR"/*/profile.json > "$TEST_DIR/comparison.json"
+}
+
+check_requirements
+
+echo "# Profile comparison - $(date)"
+echo "- Profiles: ${PROFILES[*]} (reference: $REFERENCE_PROFILE)"
+echo "- User steps: ${USERS[*]}, ${STEP_DURATION}s each"
+
+for profile in "${PROFILES[@]}"; do
+    run_profile "$profile"
+done
+
+write_report
+
+REGRESSIONS=$(jq '.regressions | length' "$TEST_DIR/comparison.json")
+echo "Comparison report: $TEST_DIR/comparison.json"
+if [ "$REGRESSIONS" -gt 0 ]; then
+    echo "Regressions against $REFERENCE_PROFILE:"
+    jq -r '.regressions[] | "  \(.profile) @ \(.users) users: \(.metric) = \(.value) (ref \(.reference // "-"))"' \
+        "$TEST_DIR/comparison.json"
+    if [ "$FAIL_ON_REGRESSION" = "true" ]; then
+        exit 2
+    fi
+fi
@@ -30,6 +30,7 @@ mkdir -p "$TEST_DIR"
 USERS=(10 25 50 100 200 500)
 DURATION=300  # Duration for each step in seconds
 RAMP_UP=30    # Ramp-up time for each step in seconds
+JFR_PROFILE="${JFR_PROFILE:-}"  # Set to "default" or "profile" to capture a Flight Recording per step
 
 # Set trap for cleanup
 trap cleanup EXIT
@@ -37,6 +38,16 @@ trap cleanup EXIT
 # Check if application is running
 check_application
 
+# /actuator/jfr is not exposed by default; hotspots and recordings are skipped unless it is
+JFR_EXPOSED=false
+if curl -sf -o /dev/null "http://localhost:8080/actuator/jfr"; then
+    JFR_EXPOSED=true
+elif [ -n "$JFR_PROFILE" ]; then
+    echo "Error: JFR_PROFILE is set but /actuator/jfr is not exposed; start the app with"
+    echo "  --management.endpoints.web.exposure.include=health,info,metrics,prometheus,jfr"
+    exit 1
+fi
+
 # Function to collect system metrics
 collect_metrics() {
     local users=$1
@@ -55,8 +66,23 @@ collect_metrics() {
     curl -s "http://localhost:8080/actuator/metrics/system.cpu.usage" > "$metrics_dir/cpu_usage.json"
     curl -s "http://localhost:8080/actuator/metrics/hikaricp.connections.active" > "$metrics_dir/db_connections.json"
     
+    # JFR-derived metrics: allocation per endpoint/class, contended monitors, GC pauses, slow JDBC socket reads
+    if [ "$JFR_EXPOSED" = "true" ]; then
+        curl -s "http://localhost:8080/actuator/jfr" > "$metrics_dir/jfr_hotspots.json"
+    fi
+    curl -s "http://localhost:8080/actuator/metrics/http.server.requests.allocation" > "$metrics_dir/allocation_per_request.json"
+    curl -s "http://localhost:8080/actuator/metrics/jfr.allocation.sampled" > "$metrics_dir/allocation_sampled.json"
+    curl -s "http://localhost:8080/actuator/metrics/jfr.monitor.contention" > "$metrics_dir/monitor_contention.json"
+    curl -s "http://localhost:8080/actuator/metrics/jfr.gc.pause" > "$metrics_dir/gc_pause.json"
+    curl -s "http://localhost:8080/actuator/metrics/jfr.socket.read" > "$metrics_dir/socket_read.json"
+    curl -s "http://localhost:8080/actuator/metrics/ratelimit.requests?tag=result:throttled" > "$metrics_dir/ratelimit_throttled.json"
+    
     # Collect system metrics
-    top -l 1 > "$metrics_dir/system_top.txt"
+    if [[ "$OSTYPE" == "darwin"* ]]; then
+        top -l 1 > "$metrics_dir/system_top.txt"
+    else
+        top -b -n 1 > "$metrics_dir/system_top.txt"
+    fi
     vmstat 1 5 > "$metrics_dir/vmstat.txt"
     
     echo "Metrics collection completed for $users users"
@@ -75,13 +101,18 @@ for users in "${USERS[@]}"; do
     echo "Running test with $users concurrent users..."
     echo "## Test Run - $users Users" >> "$SUMMARY_FILE"
     
-    # Update JMeter properties for current test
-    sed -i '' "s/<stringProp name=\"ThreadGroup.num_threads\">[0-9]*<\/stringProp>/<stringProp name=\"ThreadGroup.num_threads\">$users<\/stringProp>/" \
-        src/test/jmeter/load-test-plan.jmx
+    # Optionally record the step with JFR via the actuator endpoint
+    jfr_id=""
+    if [ -n "$JFR_PROFILE" ]; then
+        jfr_id=$(curl -s -X POST -H "Content-Type: application/json" \
+            -d "{\"profile\": \"$JFR_PROFILE\", \"name\": \"step-${users}users\"}" \
+            "http://localhost:8080/actuator/jfr" | jq -r '.id // empty')
+    fi
     
-    # Run JMeter test with error handling
+    # Run JMeter test with error handling (step load passed as JMeter properties)
     if ! jmeter -n \
         -t src/test/jmeter/load-test-plan.jmx \
+        -Jusers="$users" -Jduration="$DURATION" -Jrampup="$RAMP_UP" \
         -l "$TEST_DIR/results_${users}users.jtl" \
         -e -o "$TEST_DIR/dashboard_${users}users" \
         -j "$TEST_DIR/jmeter_${users}users.log"; then
@@ -92,6 +123,19 @@ for users in "${USERS[@]}"; do
     # Collect metrics
     collect_metrics "$users"
     
+    if [ -n "$jfr_id" ]; then
+        curl -s -X POST "http://localhost:8080/actuator/jfr/$jfr_id" > /dev/null
+        curl -s -o "$TEST_DIR/metrics_${users}users/recording.jfr" "http://localhost:8080/actuator/jfr/$jfr_id"
+        curl -s -X DELETE "http://localhost:8080/actuator/jfr/$jfr_id" > /dev/null
+        echo "JFR recording saved to $TEST_DIR/metrics_${users}users/recording.jfr"
+    fi
+    
+    # All JMeter threads share one client (the loopback address), so throttling skews every result
+    throttled=$(jq -r '.measurements[0].value // 0' "$TEST_DIR/metrics_${users}users/ratelimit_throttled.json" 2>/dev/null || echo 0)
+    if [ "${throttled%.*}" != "0" ]; then
+        echo "Warning: $throttled requests rate-limited so far; the app was started with rate-limit.enabled=true" | tee -a "$SUMMARY_FILE"
+    fi
+    
     # Extract and log key metrics
     echo "### Performance Metrics" >> "$SUMMARY_FILE"
     echo "\`\`\`" >> "$SUMMARY_FILE"
@@ -0,0 +1,143 @@
+#!/bin/bash
+
+# Startup benchmark: fat jar image vs CDS + AOT image
+# Builds both Docker targets, then starts each image repeatedly against the same Postgres container
+# and records time-to-first-successful-request and resident memory (RSS) of the JVM.
+# Writes startup.json with per-run samples and medians.
+#
+# Requirements: docker, curl, jq, python3
+#
+# Usage:
+#   ./src/test/startup/run-startup-benchmark.sh
+#   RUNS=10 ./src/test/startup/run-startup-benchmark.sh
+
+# Exit on any error
+set -e
+
+RUNS="${RUNS:-5}"
+TARGETS=(${TARGETS:-runtime cds})
+APP_PORT="${APP_PORT:-18081}"
+FIRST_REQUEST_PATH="${FIRST_REQUEST_PATH:-/api/products?page=0&size=1}"
+SETTLE_SECONDS="${SETTLE_SECONDS:-10}"   # Wait after the first request before reading steady RSS
+JAVA_OPTS="${JAVA_OPTS:-}"
+NETWORK="sde-startup-bench"
+POSTGRES_CONTAINER="sde-startup-postgres"
+APP_CONTAINER="sde-startup-app"
+
+RESULTS_DIR="src/test/startup/results"
+TIMESTAMP=$(date +"%Y%m%d_%H%M%S")
+TEST_DIR="$RESULTS_DIR/startup_$TIMESTAMP"
+mkdir -p "$TEST_DIR"
+
+cleanup() {
+    echo "Cleaning up..."
+    docker rm -f "$APP_CONTAINER" "$POSTGRES_CONTAINER" > /dev/null 2>&1 || true
+    docker network rm "$NETWORK" > /dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+now_ms() {
+    python3 -c 'import time; print(int(time.time() * 1000))'
+}
+
+# Resident set size of the JVM (PID 1 in the container) in MB
+rss_mb() {
+    docker exec "$APP_CONTAINER" sh -c "grep VmRSS /proc/1/status" | awk '{ printf "%.1f", $2 / 1024 }'
+}
+
+start_database() {
+    docker network create "$NETWORK" > /dev/null 2>&1 || true
+    docker run -d --name "$POSTGRES_CONTAINER" --network "$NETWORK" \
+        -e POSTGRES_DB=system_design_db \
+        -e POSTGRES_USER=postgres \
+        -e POSTGRES_PASSWORD=password \
+        postgres:15 > /dev/null
+    for _ in $(seq 1 60); do
+        if docker exec "$POSTGRES_CONTAINER" pg_isready -U postgres -d system_design_db > /dev/null 2>&1; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "Error: Postgres did not become ready"
+    exit 1
+}
+
+# One cold start; prints {"startupMs": .., "rssAtFirstRequestMb": .., "rssSteadyMb": ..}
+measure_start() {
+    local image=$1
+    docker rm -f "$APP_CONTAINER" > /dev/null 2>&1 || true
+
+    local started
+    started=$(now_ms)
+    docker run -d --name "$APP_CONTAINER" --network "$NETWORK" -p "$APP_PORT:8080" \
+        -e DB_HOST="$POSTGRES_CONTAINER" -e DB_PORT=5432 -e DB_NAME=system_design_db \
+        -e DB_USERNAME=postgres -e DB_PASSWORD=password -e JAVA_OPTS="$JAVA_OPTS" \
+        "$image" > /dev/null
+
+    for _ in $(seq 1 1200); do
+        if curl -sf -o /dev/null "http://localhost:$APP_PORT$FIRST_REQUEST_PATH"; then
+            local ready rss_first rss_steady
+            ready=$(now_ms)
+            rss_first=$(rss_mb)
+            sleep "$SETTLE_SECONDS"
+            rss_steady=$(rss_mb)
+            echo "{\"startupMs\": $((ready - started)), \"rssAtFirstRequestMb\": $rss_first, \"rssSteadyMb\": $rss_steady}"
+            docker rm -f "$APP_CONTAINER" > /dev/null
+            return 0
+        fi
+        sleep 0.1
+    done
+    docker logs "$APP_CONTAINER" > "$TEST_DIR/failed_start.log" 2>&1 || true
+    echo "Error: $image did not serve $FIRST_REQUEST_PATH, see $TEST_DIR/failed_start.log" >&2
+    exit 1
+}
+
+for target in "${TARGETS[@]}"; do
+    echo "Building image sde-app:$target..."
+    docker build -q --target "$target" -t "sde-app:$target" . > /dev/null
+done
+
+start_database
+
+# Untimed first start so Flyway migrations and sample data are in place for every measured run
+echo "Migrating database..."
+measure_start "sde-app:${TARGETS[0]}" > /dev/null
+
+for target in "${TARGETS[@]}"; do
+    : > "$TEST_DIR/$target.jsonl"
+    for run in $(seq 1 "$RUNS"); do
+        result=$(measure_start "sde-app:$target")
+        echo "  $target run $run: $result"
+        echo "$result" >> "$TEST_DIR/$target.jsonl"
+    done
+done
+
+# Median per metric and target, plus improvement of each target relative to the first one
+for target in "${TARGETS[@]}"; do
+    jq -s --arg target "$target" '
+        def median: sort | if length % 2 == 1 then .[length / 2 | floor] else (.[length / 2 - 1] + .[length / 2]) / 2 end;
+        {
+            target: $target,
+            runs: .,
+            median: {
+                startupMs: ([.[].startupMs] | median),
+                rssAtFirstRequestMb: ([.[].rssAtFirstRequestMb] | median),
+                rssSteadyMb: ([.[].rssSteadyMb] | median)
+            }
+        }' "$TEST_DIR/$target.jsonl"
+done | jq -s '
+    (.[0].median) as $ref
+    | {
+        generatedAt: (now | todate),
+        reference: .[0].target,
+        targets: map({key: .target, value: (. + {
+            changeVsReferencePct: {
+                startupMs: (if $ref.startupMs > 0 then ((.median.startupMs - $ref.startupMs) / $ref.startupMs * 100) else 0 end),
+                rssSteadyMb: (if $ref.rssSteadyMb > 0 then ((.median.rssSteadyMb - $ref.rssSteadyMb) / $ref.rssSteadyMb * 100) else 0 end)
+            }
+        } | del(.target))}) | from_entries
+      }' > "$TEST_DIR/startup.json"
+
+echo "Startup report: $TEST_DIR/startup.json"
+jq -r '.targets | to_entries[] | "  \(.key): startup \(.value.median.startupMs)ms, RSS \(.value.median.rssSteadyMb)MB (\(.value.changeVsReferencePct.startupMs | floor)% startup vs reference)"' \
+    "$TEST_DIR/startup.json"
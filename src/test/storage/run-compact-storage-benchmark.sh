@@ -0,0 +1,190 @@
+#!/bin/bash
+
+# Compact order storage benchmark: DECIMAL/VARCHAR columns vs BIGINT cents/SMALLINT status
+# Loads a large synthetic order history into a throwaway Postgres, measures table and index sizes and
+# report query latency, applies db/migration-compact and measures again on the same rows.
+# Both phases are measured on freshly rewritten tables (VACUUM FULL before, ALTER TABLE rewrite after),
+# so bloat from loading does not count against the baseline.
+# Writes storage.json with both measurements and the change between them.
+#
+# Requirements: docker, jq
+#
+# Usage:
+#   ./src/test/storage/run-compact-storage-benchmark.sh
+#   ORDERS=5000000 RUNS=9 ./src/test/storage/run-compact-storage-benchmark.sh
+
+# Exit on any error
+set -e
+
+ORDERS="${ORDERS:-2000000}"
+ITEMS_PER_ORDER="${ITEMS_PER_ORDER:-3}"
+CUSTOMERS="${CUSTOMERS:-100000}"
+PRODUCTS="${PRODUCTS:-10000}"
+REPORT_DAYS="${REPORT_DAYS:-30}"        # Date range of the revenue reports
+RUNS="${RUNS:-5}"                       # Timed executions per query, after one untimed one
+POSTGRES_IMAGE="${POSTGRES_IMAGE:-postgres:15}"
+POSTGRES_CONTAINER="sde-storage-postgres"
+
+MIGRATIONS_DIR="src/main/resources/db/migration"
+COMPACT_MIGRATION="src/main/resources/db/migration-compact/V1__Compact_order_storage.sql"
+RESULTS_DIR="src/test/storage/results"
+TIMESTAMP=$(date +"%Y%m%d_%H%M%S")
+TEST_DIR="$RESULTS_DIR/storage_$TIMESTAMP"
+mkdir -p "$TEST_DIR"
+
+cleanup() {
+    echo "Cleaning up..."
+    docker rm -f "$POSTGRES_CONTAINER" > /dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+psql_exec() {
+    docker exec -i "$POSTGRES_CONTAINER" psql -v ON_ERROR_STOP=1 -qAt -U postgres -d system_design_db "$@"
+}
+
+start_database() {
+    docker run -d --name "$POSTGRES_CONTAINER" \
+        -e POSTGRES_DB=system_design_db \
+        -e POSTGRES_USER=postgres \
+        -e POSTGRES_PASSWORD=password \
+        "$POSTGRES_IMAGE" > /dev/null
+    for _ in $(seq 1 60); do
+        if docker exec "$POSTGRES_CONTAINER" pg_isready -U postgres -d system_design_db > /dev/null 2>&1; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "Error: Postgres did not become ready"
+    exit 1
+}
+
+# Same schema the app migrates to, then the sample rows are replaced by the synthetic history
+load_dataset() {
+    for migration in $(ls "$MIGRATIONS_DIR"/V*.sql | sort -V); do
+        psql_exec < "$migration" > /dev/null
+    done
+    psql_exec <<SQL
+TRUNCATE order_items, orders, products, customers RESTART IDENTITY CASCADE;
+
+INSERT INTO customers (first_name, last_name, email, address)
+SELECT 'First' || g, 'Last' || g, 'customer' || g || '@example.com', g || ' Benchmark Street'
+FROM generate_series(1, $CUSTOMERS) g;
+
+INSERT INTO products (name, category, price, stock)
+SELECT 'Product ' || g, (ARRAY['Electronics', 'Books', 'Clothing', 'Home', 'Sports', 'Toys'])[1 + g % 6],
+       round((1 + random() * 999)::numeric, 2), 1000
+FROM generate_series(1, $PRODUCTS) g;
+
+-- Mostly settled orders with a small open tail, spread over a year
+INSERT INTO orders (customer_id, order_date, status, total_amount)
+SELECT 1 + (g % $CUSTOMERS), now() - random() * interval '365 days',
+       CASE WHEN r < 0.03 THEN 'PENDING' WHEN r < 0.06 THEN 'PROCESSING' WHEN r < 0.15 THEN 'SHIPPED'
+            WHEN r < 0.95 THEN 'DELIVERED' ELSE 'CANCELLED' END,
+       0
+FROM (SELECT g, random() AS r FROM generate_series(1, $ORDERS) g) s;
+
+INSERT INTO order_items (order_id, product_id, quantity, price)
+SELECT o.id, p.id, 1 + (random() * 4)::int, p.price
+FROM orders o
+CROSS JOIN generate_series(1, $ITEMS_PER_ORDER) k
+JOIN products p ON p.id = 1 + ((o.id * 7919 + k * 104729) % $PRODUCTS);
+
+UPDATE orders o SET total_amount = t.total
+FROM (SELECT order_id, SUM(quantity * price) AS total FROM order_items GROUP BY order_id) t
+WHERE o.id = t.order_id;
+
+VACUUM FULL orders;
+VACUUM FULL order_items;
+SQL
+    psql_exec -c "VACUUM ANALYZE orders" -c "VACUUM ANALYZE order_items"
+}
+
+# {"orders": {"heapBytes", "indexBytes", "totalBytes", "indexes": {name: bytes}}, "order_items": {...}}
+measure_sizes() {
+    psql_exec -c "
+        SELECT json_object_agg(c.relname, json_build_object(
+            'heapBytes', pg_relation_size(c.oid),
+            'indexBytes', pg_indexes_size(c.oid),
+            'totalBytes', pg_total_relation_size(c.oid),
+            'indexes', (SELECT json_object_agg(i.indexrelname, pg_relation_size(i.indexrelid))
+                        FROM pg_stat_user_indexes i WHERE i.relid = c.oid)))
+        FROM pg_class c
+        WHERE c.relname IN ('orders', 'order_items') AND c.relkind = 'r'"
+}
+
+# Median server-side execution time in ms; TIMING OFF keeps the per-node clock reads out of it
+time_query() {
+    local sql=$1
+    psql_exec -c "EXPLAIN (ANALYZE, TIMING OFF, FORMAT JSON) $sql" > /dev/null
+    for _ in $(seq 1 "$RUNS"); do
+        psql_exec -c "EXPLAIN (ANALYZE, TIMING OFF, FORMAT JSON) $sql" | jq '.[0]["Execution Time"]'
+    done | jq -s 'sort | if length % 2 == 1 then .[length / 2 | floor] else (.[length / 2 - 1] + .[length / 2]) / 2 end'
+}
+
+# The report queries as the app issues them; only the status literals depend on the encoding
+measure_queries() {
+    local open_statuses=$1
+    local revenue_by_product revenue_lines needs_attention daily_totals
+    revenue_by_product=$(time_query "
+        SELECT oi.product_id, p.name, SUM(oi.quantity * oi.price) AS revenue
+        FROM order_items oi JOIN orders o ON o.id = oi.order_id JOIN products p ON p.id = oi.product_id
+        WHERE o.order_date BETWEEN now() - interval '$REPORT_DAYS days' AND now()
+        GROUP BY oi.product_id, p.name ORDER BY revenue DESC")
+    revenue_lines=$(time_query "
+        SELECT oi.product_id, p.name, oi.price, SUM(oi.quantity)
+        FROM order_items oi JOIN orders o ON o.id = oi.order_id JOIN products p ON p.id = oi.product_id
+        WHERE o.order_date BETWEEN now() - interval '$REPORT_DAYS days' AND now()
+        GROUP BY oi.product_id, p.name, oi.price")
+    needs_attention=$(time_query "
+        SELECT o.id, o.customer_id, o.order_date, o.status, o.total_amount, o.updated_at
+        FROM orders o WHERE o.status IN ($open_statuses) AND o.order_date < now() - interval '1 day'")
+    daily_totals=$(time_query "
+        SELECT date_trunc('day', o.order_date) AS day, o.status, count(*), SUM(o.total_amount)
+        FROM orders o GROUP BY 1, 2")
+    echo "{\"revenueByProduct\": $revenue_by_product, \"revenueLines\": $revenue_lines, \"needsAttention\": $needs_attention, \"dailyTotals\": $daily_totals}"
+}
+
+start_database
+
+echo "Loading $ORDERS orders with $ITEMS_PER_ORDER items each..."
+load_dataset
+
+echo "Measuring DECIMAL / VARCHAR encoding..."
+echo "{\"sizes\": $(measure_sizes), \"queryMs\": $(measure_queries "'PENDING', 'PROCESSING'")}" > "$TEST_DIR/before.json"
+
+echo "Applying $COMPACT_MIGRATION..."
+started=$(date +%s)
+psql_exec < "$COMPACT_MIGRATION" > /dev/null
+migration_seconds=$(( $(date +%s) - started ))
+psql_exec -c "VACUUM ANALYZE orders" -c "VACUUM ANALYZE order_items"
+
+echo "Measuring BIGINT / SMALLINT encoding..."
+echo "{\"sizes\": $(measure_sizes), \"queryMs\": $(measure_queries "0, 1")}" > "$TEST_DIR/after.json"
+
+jq -n \
+    --slurpfile before "$TEST_DIR/before.json" \
+    --slurpfile after "$TEST_DIR/after.json" \
+    --argjson orders "$ORDERS" --argjson itemsPerOrder "$ITEMS_PER_ORDER" --argjson migrationSeconds "$migration_seconds" '
+    def pct(a; b): if a > 0 then ((b - a) / a * 100) else 0 end;
+    $before[0] as $b | $after[0] as $a
+    | {
+        generatedAt: (now | todate),
+        dataset: {orders: $orders, orderItems: ($orders * $itemsPerOrder)},
+        migrationSeconds: $migrationSeconds,
+        before: $b,
+        after: $a,
+        changePct: {
+            sizes: ($b.sizes | to_entries | map({key: .key, value: {
+                heapBytes: pct(.value.heapBytes; $a.sizes[.key].heapBytes),
+                indexBytes: pct(.value.indexBytes; $a.sizes[.key].indexBytes),
+                totalBytes: pct(.value.totalBytes; $a.sizes[.key].totalBytes)
+            }}) | from_entries),
+            queryMs: ($b.queryMs | to_entries | map({key: .key, value: pct(.value; $a.queryMs[.key])}) | from_entries)
+        }
+      }' > "$TEST_DIR/storage.json"
+
+echo "Storage report: $TEST_DIR/storage.json"
+jq -r '
+    (.changePct.sizes | to_entries[] | "  \(.key): total \(.value.totalBytes | floor)%, heap \(.value.heapBytes | floor)%, indexes \(.value.indexBytes | floor)%"),
+    (.before.queryMs as $b | .after.queryMs as $a | $b | keys[] | "  \(.): \($b[.])ms -> \($a[.])ms")' \
+    "$TEST_DIR/storage.json"